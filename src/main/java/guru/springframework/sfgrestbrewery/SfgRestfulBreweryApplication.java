@@ -7,6 +7,7 @@ import io.r2dbc.spi.ConnectionFactoryOptions;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 import org.springframework.context.annotation.Bean;
 import org.springframework.core.io.Resource;
 import org.springframework.r2dbc.connection.init.ConnectionFactoryInitializer;
@@ -15,6 +16,7 @@ import org.springframework.r2dbc.connection.init.ResourceDatabasePopulator;
 import javax.swing.*;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class SfgRestfulBreweryApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,116 @@
+package guru.springframework.sfgrestbrewery.bootstrap;
+
+import guru.springframework.sfgrestbrewery.config.BeerBatchProperties;
+import guru.springframework.sfgrestbrewery.config.BeerGeneratorProperties;
+import guru.springframework.sfgrestbrewery.domain.Beer;
+import guru.springframework.sfgrestbrewery.repositories.BeerRepository;
+import guru.springframework.sfgrestbrewery.web.model.v2.BeerStyleEnum;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Generates a reproducible synthetic catalog from {@link BeerGeneratorProperties} and streams it into the
+ * database in batches, so only a few batches are ever held in memory.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class BeerCatalogGenerator {
+
+    private static final String[] ADJECTIVES = {"Hoppy", "Golden", "Dark", "Hazy", "Crisp", "Smoky", "Wild", "Old",
+            "Bitter", "Midnight", "Rusty", "Lucky", "Sour", "Red", "Foggy", "Velvet", "Iron", "Summer", "Winter", "Twisted"};
+
+    private static final String[] NOUNS = {"Dog", "River", "Anchor", "Monk", "Fox", "Harbor", "Owl", "Barrel", "Canyon",
+            "Lantern", "Goat", "Mill", "Thunder", "Orchard", "Raven", "Bridge", "Comet", "Pine", "Stone", "Wave"};
+
+    private static final String UPC_PADDING = "000000000000";
+
+    private final BeerRepository beerRepository;
+    private final BeerGeneratorProperties generatorProperties;
+    private final BeerBatchProperties beerBatchProperties;
+
+    /**
+     * Inserts the generated beers and emits how many were written.
+     */
+    public Mono<Long> load() {
+        long start = System.nanoTime();
+
+        return generate()
+                .buffer(beerBatchProperties.getBatchSize())
+                .flatMap(beers -> beerRepository.insertAll(beers).count()
+                        // the H2 driver runs statements on the subscribing thread, so batches only overlap if each gets its own
+                        .subscribeOn(Schedulers.boundedElastic()), generatorProperties.getConcurrency())
+                .reduce(0L, Long::sum)
+                .doOnSuccess(count -> log.info("Generated {} beers in {} ms", count, (System.nanoTime() - start) / 1_000_000));
+    }
+
+    /**
+     * The same seed always produces the same beers. UPCs start with {@code 2}, the GS1 prefix reserved for
+     * in-store use, followed by the zero padded row number, so they stay unique and clear of the fixed UPCs.
+     */
+    public Flux<Beer> generate() {
+        Map<BeerStyleEnum, Integer> weights = generatorProperties.getStyleWeights();
+        BeerStyleEnum[] styles = weights.isEmpty() ? BeerStyleEnum.values() : weights.keySet().toArray(new BeerStyleEnum[0]);
+        int[] upperBounds = upperBounds(styles, weights);
+        int nameCardinality = Math.max(1, generatorProperties.getNameCardinality());
+        LocalDateTime now = LocalDateTime.now();
+
+        return Flux.defer(() -> {
+            Random random = new Random(generatorProperties.getSeed());
+
+            return Flux.range(0, generatorProperties.getRowCount())
+                    .map(n -> Beer.builder()
+                            .beerName(name(random.nextInt(nameCardinality)))
+                            .beerStyle(pick(styles, upperBounds, random))
+                            .upc(upc(n))
+                            .price(BigDecimal.valueOf(random.nextInt(10000), 2))
+                            .quantityOnHand(random.nextInt(5000))
+                            .createdDate(now)
+                            .lastModifiedDate(now)
+                            .build());
+        });
+    }
+
+    /**
+     * Running totals of the style weights, so a uniform pick below the last total lands on each style in
+     * proportion to its weight. The weights are validated with {@link BeerGeneratorProperties}.
+     */
+    private static int[] upperBounds(BeerStyleEnum[] styles, Map<BeerStyleEnum, Integer> weights) {
+        int[] bounds = new int[styles.length];
+        int total = 0;
+        for (int i = 0; i < styles.length; i++) {
+            total += weights.isEmpty() ? 1 : weights.get(styles[i]);
+            bounds[i] = total;
+        }
+        return bounds;
+    }
+
+    private static BeerStyleEnum pick(BeerStyleEnum[] styles, int[] upperBounds, Random random) {
+        int n = random.nextInt(upperBounds[upperBounds.length - 1]);
+        int i = 0;
+        while (upperBounds[i] <= n) {
+            i++;
+        }
+        return styles[i];
+    }
+
+    private static String upc(int n) {
+        String digits = Integer.toString(n);
+        return "2" + UPC_PADDING.substring(digits.length()) + digits;
+    }
+
+    private static String name(int n) {
+        int combinations = ADJECTIVES.length * NOUNS.length;
+        String name = ADJECTIVES[n % ADJECTIVES.length] + " " + NOUNS[(n / ADJECTIVES.length) % NOUNS.length];
+        return n < combinations ? name : name + " " + (n / combinations + 1);
+    }
+}
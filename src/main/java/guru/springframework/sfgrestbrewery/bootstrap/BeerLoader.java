@@ -1,5 +1,6 @@
 package guru.springframework.sfgrestbrewery.bootstrap;
 
+import guru.springframework.sfgrestbrewery.config.BeerGeneratorProperties;
 import guru.springframework.sfgrestbrewery.domain.Beer;
 import guru.springframework.sfgrestbrewery.repositories.BeerRepository;
 import guru.springframework.sfgrestbrewery.web.model.v2.BeerStyleEnum;
@@ -11,6 +12,8 @@ import org.springframework.stereotype.Component;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
 
 /**
@@ -54,6 +57,8 @@ public class BeerLoader implements CommandLineRunner {
 
 
     private final BeerRepository beerRepository;
+    private final BeerCatalogGenerator beerCatalogGenerator;
+    private final BeerGeneratorProperties generatorProperties;
 
     @Override
     public void run(String... args) throws Exception {
@@ -64,310 +69,323 @@ public class BeerLoader implements CommandLineRunner {
         log.debug("Loading initial data. Count is: {}", beerRepository.count().block() );
 
         if (beerRepository.count().block() == 0) {
+            beerRepository.insertAll(initialBeers()).then().block();
 
-            Random random = new Random();
-
-            beerRepository.save(Beer.builder()
-                    .beerName("Mango Bobs")
-                    .beerStyle(BeerStyleEnum.ALE)
-                    .upc(BEER_1_UPC)
-                    .price(new BigDecimal(BigInteger.valueOf(random.nextInt(10000)), 2))
-                    .quantityOnHand(random.nextInt(5000))
-                    .createdDate(LocalDateTime.now())
-                    .lastModifiedDate(LocalDateTime.now())
-                    .build()).block();
-
-            beerRepository.save(Beer.builder()
-                    .beerName("Galaxy Cat")
-                    .beerStyle(BeerStyleEnum.PALE_ALE)
-                    .upc(BEER_2_UPC)
-                    .price(new BigDecimal(BigInteger.valueOf(random.nextInt(10000)), 2))
-                    .quantityOnHand(random.nextInt(5000))
-                    .createdDate(LocalDateTime.now())
-                    .lastModifiedDate(LocalDateTime.now())
-                    .build()).block();
-
-            beerRepository.save(Beer.builder()
-                    .beerName("No Hammers On The Bar")
-                    .beerStyle(BeerStyleEnum.WHEAT)
-                    .upc(BEER_3_UPC)
-                    .price(new BigDecimal(BigInteger.valueOf(random.nextInt(10000)), 2))
-                    .quantityOnHand(random.nextInt(5000))
-                    .createdDate(LocalDateTime.now())
-                    .lastModifiedDate(LocalDateTime.now())
-                    .build()).block();
-
-            beerRepository.save(Beer.builder()
-                    .beerName("Blessed")
-                    .beerStyle(BeerStyleEnum.STOUT)
-                    .upc(BEER_4_UPC)
-                    .price(new BigDecimal(BigInteger.valueOf(random.nextInt(10000)), 2))
-                    .quantityOnHand(random.nextInt(5000))
-                    .createdDate(LocalDateTime.now())
-                    .lastModifiedDate(LocalDateTime.now())
-                    .build()).block();
-
-            beerRepository.save(Beer.builder()
-                    .beerName("Adjunct Trail")
-                    .beerStyle(BeerStyleEnum.STOUT)
-                    .upc(BEER_5_UPC)
-                    .price(new BigDecimal(BigInteger.valueOf(random.nextInt(10000)), 2))
-                    .quantityOnHand(random.nextInt(5000))
-                    .createdDate(LocalDateTime.now())
-                    .lastModifiedDate(LocalDateTime.now())
-                    .build()).block();
-
-            beerRepository.save(Beer.builder()
-                    .beerName("Very GGGreenn")
-                    .beerStyle(BeerStyleEnum.IPA)
-                    .upc(BEER_6_UPC)
-                    .price(new BigDecimal(BigInteger.valueOf(random.nextInt(10000)), 2))
-                    .quantityOnHand(random.nextInt(5000))
-                    .createdDate(LocalDateTime.now())
-                    .lastModifiedDate(LocalDateTime.now())
-                    .build()).block();
-
-            beerRepository.save(Beer.builder()
-                    .beerName("Double Barrel Hunahpu's")
-                    .beerStyle(BeerStyleEnum.STOUT)
-                    .upc(BEER_7_UPC)
-                    .price(new BigDecimal(BigInteger.valueOf(random.nextInt(10000)), 2))
-                    .quantityOnHand(random.nextInt(5000))
-                    .createdDate(LocalDateTime.now())
-                    .lastModifiedDate(LocalDateTime.now())
-                    .build()).block();
-
-            beerRepository.save(Beer.builder()
-                    .beerName("Very Hazy")
-                    .beerStyle(BeerStyleEnum.IPA)
-                    .upc(BEER_8_UPC)
-                    .price(new BigDecimal(BigInteger.valueOf(random.nextInt(10000)), 2))
-                    .quantityOnHand(random.nextInt(5000))
-                    .createdDate(LocalDateTime.now())
-                    .lastModifiedDate(LocalDateTime.now())
-                    .build()).block();
-
-            beerRepository.save(Beer.builder()
-                    .beerName("SR-71")
-                    .beerStyle(BeerStyleEnum.STOUT)
-                    .upc(BEER_9_UPC)
-                    .price(new BigDecimal(BigInteger.valueOf(random.nextInt(10000)), 2))
-                    .quantityOnHand(random.nextInt(5000))
-                    .createdDate(LocalDateTime.now())
-                    .lastModifiedDate(LocalDateTime.now())
-                    .build()).block();
-
-            beerRepository.save(Beer.builder()
-                    .beerName("Pliny the Younger")
-                    .beerStyle(BeerStyleEnum.IPA)
-                    .upc(BEER_10_UPC)
-                    .price(new BigDecimal(BigInteger.valueOf(random.nextInt(10000)), 2))
-                    .quantityOnHand(random.nextInt(5000))
-                    .createdDate(LocalDateTime.now())
-                    .lastModifiedDate(LocalDateTime.now())
-                    .build()).block();
-
-            beerRepository.save(Beer.builder()
-                    .beerName("Blessed")
-                    .beerStyle(BeerStyleEnum.STOUT)
-                    .upc(BEER_11_UPC)
-                    .price(new BigDecimal(BigInteger.valueOf(random.nextInt(10000)), 2))
-                    .quantityOnHand(random.nextInt(5000))
-                    .createdDate(LocalDateTime.now())
-                    .lastModifiedDate(LocalDateTime.now())
-                    .build()).block();
-
-            beerRepository.save(Beer.builder()
-                    .beerName("King Krush")
-                    .beerStyle(BeerStyleEnum.IPA)
-                    .upc(BEER_12_UPC)
-                    .price(new BigDecimal(BigInteger.valueOf(random.nextInt(10000)), 2))
-                    .quantityOnHand(random.nextInt(5000))
-                    .createdDate(LocalDateTime.now())
-                    .lastModifiedDate(LocalDateTime.now())
-                    .build()).block();
-
-            beerRepository.save(Beer.builder()
-                    .beerName("PBS Porter")
-                    .beerStyle(BeerStyleEnum.PORTER)
-                    .upc(BEER_13_UPC)
-                    .price(new BigDecimal(BigInteger.valueOf(random.nextInt(10000)), 2))
-                    .quantityOnHand(random.nextInt(5000))
-                    .createdDate(LocalDateTime.now())
-                    .lastModifiedDate(LocalDateTime.now())
-                    .build()).block();
-
-            beerRepository.save(Beer.builder()
-                    .beerName("Pinball Porter")
-                    .beerStyle(BeerStyleEnum.STOUT)
-                    .upc(BEER_14_UPC)
-                    .price(new BigDecimal(BigInteger.valueOf(random.nextInt(10000)), 2))
-                    .quantityOnHand(random.nextInt(5000))
-                    .createdDate(LocalDateTime.now())
-                    .lastModifiedDate(LocalDateTime.now())
-                    .build()).block();
-
-            beerRepository.save(Beer.builder()
-                    .beerName("Golden Budda")
-                    .beerStyle(BeerStyleEnum.STOUT)
-                    .upc(BEER_15_UPC)
-                    .price(new BigDecimal(BigInteger.valueOf(random.nextInt(10000)), 2))
-                    .quantityOnHand(random.nextInt(5000))
-                    .createdDate(LocalDateTime.now())
-                    .lastModifiedDate(LocalDateTime.now())
-                    .build()).block();
-
-            beerRepository.save(Beer.builder()
-                    .beerName("Grand Central Red")
-                    .beerStyle(BeerStyleEnum.LAGER)
-                    .upc(BEER_16_UPC)
-                    .price(new BigDecimal(BigInteger.valueOf(random.nextInt(10000)), 2))
-                    .quantityOnHand(random.nextInt(5000))
-                    .createdDate(LocalDateTime.now())
-                    .lastModifiedDate(LocalDateTime.now())
-                    .build()).block();
-
-            beerRepository.save(Beer.builder()
-                    .beerName("Pac-Man")
-                    .beerStyle(BeerStyleEnum.STOUT)
-                    .upc(BEER_17_UPC)
-                    .price(new BigDecimal(BigInteger.valueOf(random.nextInt(10000)), 2))
-                    .quantityOnHand(random.nextInt(5000))
-                    .createdDate(LocalDateTime.now())
-                    .lastModifiedDate(LocalDateTime.now())
-                    .build()).block();
-
-            beerRepository.save(Beer.builder()
-                    .beerName("Ro Sham Bo")
-                    .beerStyle(BeerStyleEnum.IPA)
-                    .upc(BEER_18_UPC)
-                    .price(new BigDecimal(BigInteger.valueOf(random.nextInt(10000)), 2))
-                    .quantityOnHand(random.nextInt(5000))
-                    .createdDate(LocalDateTime.now())
-                    .lastModifiedDate(LocalDateTime.now())
-                    .build()).block();
-
-            beerRepository.save(Beer.builder()
-                    .beerName("Summer Wheatly")
-                    .beerStyle(BeerStyleEnum.WHEAT)
-                    .upc(BEER_19_UPC)
-                    .price(new BigDecimal(BigInteger.valueOf(random.nextInt(10000)), 2))
-                    .quantityOnHand(random.nextInt(5000))
-                    .createdDate(LocalDateTime.now())
-                    .lastModifiedDate(LocalDateTime.now())
-                    .build()).block();
-
-            beerRepository.save(Beer.builder()
-                    .beerName("Java Jill")
-                    .beerStyle(BeerStyleEnum.LAGER)
-                    .upc(BEER_20_UPC)
-                    .price(new BigDecimal(BigInteger.valueOf(random.nextInt(10000)), 2))
-                    .quantityOnHand(random.nextInt(5000))
-                    .createdDate(LocalDateTime.now())
-                    .lastModifiedDate(LocalDateTime.now())
-                    .build()).block();
-
-            beerRepository.save(Beer.builder()
-                    .beerName("Bike Trail Pale")
-                    .beerStyle(BeerStyleEnum.PALE_ALE)
-                    .upc(BEER_21_UPC)
-                    .price(new BigDecimal(BigInteger.valueOf(random.nextInt(10000)), 2))
-                    .quantityOnHand(random.nextInt(5000))
-                    .createdDate(LocalDateTime.now())
-                    .lastModifiedDate(LocalDateTime.now())
-                    .build()).block();
-
-            beerRepository.save(Beer.builder()
-                    .beerName("N.Z.P")
-                    .beerStyle(BeerStyleEnum.IPA)
-                    .upc(BEER_22_UPC)
-                    .price(new BigDecimal(BigInteger.valueOf(random.nextInt(10000)), 2))
-                    .quantityOnHand(random.nextInt(5000))
-                    .createdDate(LocalDateTime.now())
-                    .lastModifiedDate(LocalDateTime.now())
-                    .build()).block();
-
-            beerRepository.save(Beer.builder()
-                    .beerName("Stawberry Blond")
-                    .beerStyle(BeerStyleEnum.WHEAT)
-                    .upc(BEER_23_UPC)
-                    .price(new BigDecimal(BigInteger.valueOf(random.nextInt(10000)), 2))
-                    .quantityOnHand(random.nextInt(5000))
-                    .createdDate(LocalDateTime.now())
-                    .lastModifiedDate(LocalDateTime.now())
-                    .build()).block();
-
-            beerRepository.save(Beer.builder()
-                    .beerName("Loco")
-                    .beerStyle(BeerStyleEnum.PORTER)
-                    .upc(BEER_24_UPC)
-                    .price(new BigDecimal(BigInteger.valueOf(random.nextInt(10000)), 2))
-                    .quantityOnHand(random.nextInt(5000))
-                    .createdDate(LocalDateTime.now())
-                    .lastModifiedDate(LocalDateTime.now())
-                    .build()).block();
-
-            beerRepository.save(Beer.builder()
-                    .beerName("Spocktoberfest")
-                    .beerStyle(BeerStyleEnum.STOUT)
-                    .upc(BEER_25_UPC)
-                    .price(new BigDecimal(BigInteger.valueOf(random.nextInt(10000)), 2))
-                    .quantityOnHand(random.nextInt(5000))
-                    .createdDate(LocalDateTime.now())
-                    .lastModifiedDate(LocalDateTime.now())
-                    .build()).block();
-
-            beerRepository.save(Beer.builder()
-                    .beerName("Beach Blond Ale")
-                    .beerStyle(BeerStyleEnum.ALE)
-                    .upc(BEER_26_UPC)
-                    .price(new BigDecimal(BigInteger.valueOf(random.nextInt(10000)), 2))
-                    .quantityOnHand(random.nextInt(5000))
-                    .createdDate(LocalDateTime.now())
-                    .lastModifiedDate(LocalDateTime.now())
-                    .build()).block();
-
-            beerRepository.save(Beer.builder()
-                    .beerName("Bimini Twist IPA")
-                    .beerStyle(BeerStyleEnum.IPA)
-                    .upc(BEER_27_UPC)
-                    .price(new BigDecimal(BigInteger.valueOf(random.nextInt(10000)), 2))
-                    .quantityOnHand(random.nextInt(5000))
-                    .createdDate(LocalDateTime.now())
-                    .lastModifiedDate(LocalDateTime.now())
-                    .build()).block();
-
-            beerRepository.save(Beer.builder()
-                    .beerName("Rod Bender Red Ale")
-                    .beerStyle(BeerStyleEnum.ALE)
-                    .upc(BEER_28_UPC)
-                    .price(new BigDecimal(BigInteger.valueOf(random.nextInt(10000)), 2))
-                    .quantityOnHand(random.nextInt(5000))
-                    .createdDate(LocalDateTime.now())
-                    .lastModifiedDate(LocalDateTime.now())
-                    .build()).block();
-
-            beerRepository.save(Beer.builder()
-                    .beerName("Floating Dock")
-                    .beerStyle(BeerStyleEnum.SAISON)
-                    .upc(BEER_29_UPC)
-                    .price(new BigDecimal(BigInteger.valueOf(random.nextInt(10000)), 2))
-                    .quantityOnHand(random.nextInt(5000))
-                    .createdDate(LocalDateTime.now())
-                    .lastModifiedDate(LocalDateTime.now())
-                    .build()).block();
-
-            beerRepository.save(Beer.builder()
-                    .beerName("El Hefe")
-                    .beerStyle(BeerStyleEnum.WHEAT)
-                    .upc(BEER_30_UPC)
-                    .price(new BigDecimal(BigInteger.valueOf(random.nextInt(10000)), 2))
-                    .quantityOnHand(random.nextInt(5000))
-                    .createdDate(LocalDateTime.now())
-                    .lastModifiedDate(LocalDateTime.now())
-                    .build()).block();
+            if (generatorProperties.isEnabled()) {
+                beerCatalogGenerator.load().block();
+            }
 
             log.debug("Beer Records loaded: {}", beerRepository.count().block());
         }
     }
+
+    /**
+     * The beers the catalog starts with (and is reset to), with random prices and inventory.
+     */
+    public List<Beer> initialBeers() {
+        List<Beer> beers = new ArrayList<>();
+        Random random = new Random();
+
+        beers.add(Beer.builder()
+                .beerName("Mango Bobs")
+                .beerStyle(BeerStyleEnum.ALE)
+                .upc(BEER_1_UPC)
+                .price(new BigDecimal(BigInteger.valueOf(random.nextInt(10000)), 2))
+                .quantityOnHand(random.nextInt(5000))
+                .createdDate(LocalDateTime.now())
+                .lastModifiedDate(LocalDateTime.now())
+                .build());
+
+        beers.add(Beer.builder()
+                .beerName("Galaxy Cat")
+                .beerStyle(BeerStyleEnum.PALE_ALE)
+                .upc(BEER_2_UPC)
+                .price(new BigDecimal(BigInteger.valueOf(random.nextInt(10000)), 2))
+                .quantityOnHand(random.nextInt(5000))
+                .createdDate(LocalDateTime.now())
+                .lastModifiedDate(LocalDateTime.now())
+                .build());
+
+        beers.add(Beer.builder()
+                .beerName("No Hammers On The Bar")
+                .beerStyle(BeerStyleEnum.WHEAT)
+                .upc(BEER_3_UPC)
+                .price(new BigDecimal(BigInteger.valueOf(random.nextInt(10000)), 2))
+                .quantityOnHand(random.nextInt(5000))
+                .createdDate(LocalDateTime.now())
+                .lastModifiedDate(LocalDateTime.now())
+                .build());
+
+        beers.add(Beer.builder()
+                .beerName("Blessed")
+                .beerStyle(BeerStyleEnum.STOUT)
+                .upc(BEER_4_UPC)
+                .price(new BigDecimal(BigInteger.valueOf(random.nextInt(10000)), 2))
+                .quantityOnHand(random.nextInt(5000))
+                .createdDate(LocalDateTime.now())
+                .lastModifiedDate(LocalDateTime.now())
+                .build());
+
+        beers.add(Beer.builder()
+                .beerName("Adjunct Trail")
+                .beerStyle(BeerStyleEnum.STOUT)
+                .upc(BEER_5_UPC)
+                .price(new BigDecimal(BigInteger.valueOf(random.nextInt(10000)), 2))
+                .quantityOnHand(random.nextInt(5000))
+                .createdDate(LocalDateTime.now())
+                .lastModifiedDate(LocalDateTime.now())
+                .build());
+
+        beers.add(Beer.builder()
+                .beerName("Very GGGreenn")
+                .beerStyle(BeerStyleEnum.IPA)
+                .upc(BEER_6_UPC)
+                .price(new BigDecimal(BigInteger.valueOf(random.nextInt(10000)), 2))
+                .quantityOnHand(random.nextInt(5000))
+                .createdDate(LocalDateTime.now())
+                .lastModifiedDate(LocalDateTime.now())
+                .build());
+
+        beers.add(Beer.builder()
+                .beerName("Double Barrel Hunahpu's")
+                .beerStyle(BeerStyleEnum.STOUT)
+                .upc(BEER_7_UPC)
+                .price(new BigDecimal(BigInteger.valueOf(random.nextInt(10000)), 2))
+                .quantityOnHand(random.nextInt(5000))
+                .createdDate(LocalDateTime.now())
+                .lastModifiedDate(LocalDateTime.now())
+                .build());
+
+        beers.add(Beer.builder()
+                .beerName("Very Hazy")
+                .beerStyle(BeerStyleEnum.IPA)
+                .upc(BEER_8_UPC)
+                .price(new BigDecimal(BigInteger.valueOf(random.nextInt(10000)), 2))
+                .quantityOnHand(random.nextInt(5000))
+                .createdDate(LocalDateTime.now())
+                .lastModifiedDate(LocalDateTime.now())
+                .build());
+
+        beers.add(Beer.builder()
+                .beerName("SR-71")
+                .beerStyle(BeerStyleEnum.STOUT)
+                .upc(BEER_9_UPC)
+                .price(new BigDecimal(BigInteger.valueOf(random.nextInt(10000)), 2))
+                .quantityOnHand(random.nextInt(5000))
+                .createdDate(LocalDateTime.now())
+                .lastModifiedDate(LocalDateTime.now())
+                .build());
+
+        beers.add(Beer.builder()
+                .beerName("Pliny the Younger")
+                .beerStyle(BeerStyleEnum.IPA)
+                .upc(BEER_10_UPC)
+                .price(new BigDecimal(BigInteger.valueOf(random.nextInt(10000)), 2))
+                .quantityOnHand(random.nextInt(5000))
+                .createdDate(LocalDateTime.now())
+                .lastModifiedDate(LocalDateTime.now())
+                .build());
+
+        beers.add(Beer.builder()
+                .beerName("Blessed")
+                .beerStyle(BeerStyleEnum.STOUT)
+                .upc(BEER_11_UPC)
+                .price(new BigDecimal(BigInteger.valueOf(random.nextInt(10000)), 2))
+                .quantityOnHand(random.nextInt(5000))
+                .createdDate(LocalDateTime.now())
+                .lastModifiedDate(LocalDateTime.now())
+                .build());
+
+        beers.add(Beer.builder()
+                .beerName("King Krush")
+                .beerStyle(BeerStyleEnum.IPA)
+                .upc(BEER_12_UPC)
+                .price(new BigDecimal(BigInteger.valueOf(random.nextInt(10000)), 2))
+                .quantityOnHand(random.nextInt(5000))
+                .createdDate(LocalDateTime.now())
+                .lastModifiedDate(LocalDateTime.now())
+                .build());
+
+        beers.add(Beer.builder()
+                .beerName("PBS Porter")
+                .beerStyle(BeerStyleEnum.PORTER)
+                .upc(BEER_13_UPC)
+                .price(new BigDecimal(BigInteger.valueOf(random.nextInt(10000)), 2))
+                .quantityOnHand(random.nextInt(5000))
+                .createdDate(LocalDateTime.now())
+                .lastModifiedDate(LocalDateTime.now())
+                .build());
+
+        beers.add(Beer.builder()
+                .beerName("Pinball Porter")
+                .beerStyle(BeerStyleEnum.STOUT)
+                .upc(BEER_14_UPC)
+                .price(new BigDecimal(BigInteger.valueOf(random.nextInt(10000)), 2))
+                .quantityOnHand(random.nextInt(5000))
+                .createdDate(LocalDateTime.now())
+                .lastModifiedDate(LocalDateTime.now())
+                .build());
+
+        beers.add(Beer.builder()
+                .beerName("Golden Budda")
+                .beerStyle(BeerStyleEnum.STOUT)
+                .upc(BEER_15_UPC)
+                .price(new BigDecimal(BigInteger.valueOf(random.nextInt(10000)), 2))
+                .quantityOnHand(random.nextInt(5000))
+                .createdDate(LocalDateTime.now())
+                .lastModifiedDate(LocalDateTime.now())
+                .build());
+
+        beers.add(Beer.builder()
+                .beerName("Grand Central Red")
+                .beerStyle(BeerStyleEnum.LAGER)
+                .upc(BEER_16_UPC)
+                .price(new BigDecimal(BigInteger.valueOf(random.nextInt(10000)), 2))
+                .quantityOnHand(random.nextInt(5000))
+                .createdDate(LocalDateTime.now())
+                .lastModifiedDate(LocalDateTime.now())
+                .build());
+
+        beers.add(Beer.builder()
+                .beerName("Pac-Man")
+                .beerStyle(BeerStyleEnum.STOUT)
+                .upc(BEER_17_UPC)
+                .price(new BigDecimal(BigInteger.valueOf(random.nextInt(10000)), 2))
+                .quantityOnHand(random.nextInt(5000))
+                .createdDate(LocalDateTime.now())
+                .lastModifiedDate(LocalDateTime.now())
+                .build());
+
+        beers.add(Beer.builder()
+                .beerName("Ro Sham Bo")
+                .beerStyle(BeerStyleEnum.IPA)
+                .upc(BEER_18_UPC)
+                .price(new BigDecimal(BigInteger.valueOf(random.nextInt(10000)), 2))
+                .quantityOnHand(random.nextInt(5000))
+                .createdDate(LocalDateTime.now())
+                .lastModifiedDate(LocalDateTime.now())
+                .build());
+
+        beers.add(Beer.builder()
+                .beerName("Summer Wheatly")
+                .beerStyle(BeerStyleEnum.WHEAT)
+                .upc(BEER_19_UPC)
+                .price(new BigDecimal(BigInteger.valueOf(random.nextInt(10000)), 2))
+                .quantityOnHand(random.nextInt(5000))
+                .createdDate(LocalDateTime.now())
+                .lastModifiedDate(LocalDateTime.now())
+                .build());
+
+        beers.add(Beer.builder()
+                .beerName("Java Jill")
+                .beerStyle(BeerStyleEnum.LAGER)
+                .upc(BEER_20_UPC)
+                .price(new BigDecimal(BigInteger.valueOf(random.nextInt(10000)), 2))
+                .quantityOnHand(random.nextInt(5000))
+                .createdDate(LocalDateTime.now())
+                .lastModifiedDate(LocalDateTime.now())
+                .build());
+
+        beers.add(Beer.builder()
+                .beerName("Bike Trail Pale")
+                .beerStyle(BeerStyleEnum.PALE_ALE)
+                .upc(BEER_21_UPC)
+                .price(new BigDecimal(BigInteger.valueOf(random.nextInt(10000)), 2))
+                .quantityOnHand(random.nextInt(5000))
+                .createdDate(LocalDateTime.now())
+                .lastModifiedDate(LocalDateTime.now())
+                .build());
+
+        beers.add(Beer.builder()
+                .beerName("N.Z.P")
+                .beerStyle(BeerStyleEnum.IPA)
+                .upc(BEER_22_UPC)
+                .price(new BigDecimal(BigInteger.valueOf(random.nextInt(10000)), 2))
+                .quantityOnHand(random.nextInt(5000))
+                .createdDate(LocalDateTime.now())
+                .lastModifiedDate(LocalDateTime.now())
+                .build());
+
+        beers.add(Beer.builder()
+                .beerName("Stawberry Blond")
+                .beerStyle(BeerStyleEnum.WHEAT)
+                .upc(BEER_23_UPC)
+                .price(new BigDecimal(BigInteger.valueOf(random.nextInt(10000)), 2))
+                .quantityOnHand(random.nextInt(5000))
+                .createdDate(LocalDateTime.now())
+                .lastModifiedDate(LocalDateTime.now())
+                .build());
+
+        beers.add(Beer.builder()
+                .beerName("Loco")
+                .beerStyle(BeerStyleEnum.PORTER)
+                .upc(BEER_24_UPC)
+                .price(new BigDecimal(BigInteger.valueOf(random.nextInt(10000)), 2))
+                .quantityOnHand(random.nextInt(5000))
+                .createdDate(LocalDateTime.now())
+                .lastModifiedDate(LocalDateTime.now())
+                .build());
+
+        beers.add(Beer.builder()
+                .beerName("Spocktoberfest")
+                .beerStyle(BeerStyleEnum.STOUT)
+                .upc(BEER_25_UPC)
+                .price(new BigDecimal(BigInteger.valueOf(random.nextInt(10000)), 2))
+                .quantityOnHand(random.nextInt(5000))
+                .createdDate(LocalDateTime.now())
+                .lastModifiedDate(LocalDateTime.now())
+                .build());
+
+        beers.add(Beer.builder()
+                .beerName("Beach Blond Ale")
+                .beerStyle(BeerStyleEnum.ALE)
+                .upc(BEER_26_UPC)
+                .price(new BigDecimal(BigInteger.valueOf(random.nextInt(10000)), 2))
+                .quantityOnHand(random.nextInt(5000))
+                .createdDate(LocalDateTime.now())
+                .lastModifiedDate(LocalDateTime.now())
+                .build());
+
+        beers.add(Beer.builder()
+                .beerName("Bimini Twist IPA")
+                .beerStyle(BeerStyleEnum.IPA)
+                .upc(BEER_27_UPC)
+                .price(new BigDecimal(BigInteger.valueOf(random.nextInt(10000)), 2))
+                .quantityOnHand(random.nextInt(5000))
+                .createdDate(LocalDateTime.now())
+                .lastModifiedDate(LocalDateTime.now())
+                .build());
+
+        beers.add(Beer.builder()
+                .beerName("Rod Bender Red Ale")
+                .beerStyle(BeerStyleEnum.ALE)
+                .upc(BEER_28_UPC)
+                .price(new BigDecimal(BigInteger.valueOf(random.nextInt(10000)), 2))
+                .quantityOnHand(random.nextInt(5000))
+                .createdDate(LocalDateTime.now())
+                .lastModifiedDate(LocalDateTime.now())
+                .build());
+
+        beers.add(Beer.builder()
+                .beerName("Floating Dock")
+                .beerStyle(BeerStyleEnum.SAISON)
+                .upc(BEER_29_UPC)
+                .price(new BigDecimal(BigInteger.valueOf(random.nextInt(10000)), 2))
+                .quantityOnHand(random.nextInt(5000))
+                .createdDate(LocalDateTime.now())
+                .lastModifiedDate(LocalDateTime.now())
+                .build());
+
+        beers.add(Beer.builder()
+                .beerName("El Hefe")
+                .beerStyle(BeerStyleEnum.WHEAT)
+                .upc(BEER_30_UPC)
+                .price(new BigDecimal(BigInteger.valueOf(random.nextInt(10000)), 2))
+                .quantityOnHand(random.nextInt(5000))
+                .createdDate(LocalDateTime.now())
+                .lastModifiedDate(LocalDateTime.now())
+                .build());
+
+        return beers;
+    }
 }
\ No newline at end of file
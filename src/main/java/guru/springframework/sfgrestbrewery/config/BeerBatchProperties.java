@@ -0,0 +1,23 @@
+package guru.springframework.sfgrestbrewery.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Tuning and limits for bulk beer requests.
+ */
+@Data
+@ConfigurationProperties("sfg.brewery.beer-batch")
+public class BeerBatchProperties {
+
+    /**
+     * Number of beers sent to the database in one batched statement.
+     */
+    private int batchSize = 500;
+
+    /**
+     * Most ids (or UPCs) one multi-get or bulk delete may name, duplicates included. Longer lists are rejected
+     * with a 400.
+     */
+    private int maxIds = 1_000;
+}
@@ -0,0 +1,29 @@
+package guru.springframework.sfgrestbrewery.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Sizing for the beerCache (id to beer) and beerUpcCache (upc to id) lookup caches.
+ */
+@Data
+@ConfigurationProperties("sfg.brewery.beer-cache")
+public class BeerCacheProperties {
+
+    /**
+     * Maximum number of beers held by id.
+     */
+    private long maximumSize = 10_000;
+
+    /**
+     * Maximum number of upc to id mappings.
+     */
+    private long upcMaximumSize = 10_000;
+
+    /**
+     * Entries are dropped this long after they were loaded or written.
+     */
+    private Duration expireAfterWrite = Duration.ofMinutes(30);
+}
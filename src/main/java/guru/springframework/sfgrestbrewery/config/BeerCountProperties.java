@@ -0,0 +1,30 @@
+package guru.springframework.sfgrestbrewery.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Tuning for the total element counts returned with beer pages.
+ */
+@Data
+@ConfigurationProperties("sfg.brewery.beer-count")
+public class BeerCountProperties {
+
+    /**
+     * Number of distinct filters whose counts are kept.
+     */
+    private long cacheSize = 1000;
+
+    /**
+     * Upper bound on how long a count is reused, in case a write bypasses the service.
+     */
+    private Duration cacheTtl = Duration.ofMinutes(10);
+
+    /**
+     * Unfiltered listings use the database's row count estimate instead of an exact COUNT once the
+     * estimate reaches this many rows. Zero always counts exactly.
+     */
+    private long approximateThreshold = 0;
+}
@@ -0,0 +1,59 @@
+package guru.springframework.sfgrestbrewery.config;
+
+import guru.springframework.sfgrestbrewery.web.model.v2.BeerStyleEnum;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import javax.validation.constraints.AssertTrue;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Synthetic catalog seeded at startup on top of the fixed beers, for testing against production sized data.
+ */
+@Data
+@Validated
+@ConfigurationProperties("sfg.brewery.generator")
+public class BeerGeneratorProperties {
+
+    private boolean enabled = false;
+
+    /**
+     * Number of generated beers, not counting the fixed ones. Startup waits for them: the in-memory database
+     * takes them at roughly 15,000-20,000 rows/s, about a minute for the default, bound by keeping the beer
+     * indexes up to date rather than by batch size. Even one INSERT ... SELECT in the database is no faster.
+     */
+    private int rowCount = 1_000_000;
+
+    /**
+     * Relative weight of each style, e.g. {@code style-weights.IPA=5}. Styles left out are never generated;
+     * when empty every style is equally likely.
+     */
+    private Map<BeerStyleEnum, @NotNull @PositiveOrZero Integer> styleWeights = new EnumMap<>(BeerStyleEnum.class);
+
+    /**
+     * Number of distinct beer names the generated beers share.
+     */
+    private int nameCardinality = 10_000;
+
+    private long seed = 42;
+
+    /**
+     * Batched inserts in flight at once, each on its own pooled connection.
+     */
+    @Positive
+    private int concurrency = 4;
+
+    @AssertTrue(message = "style-weights must not all be zero, nor add up to more than " + Integer.MAX_VALUE)
+    private boolean isStyleWeightsTotalValid() {
+        if (styleWeights.isEmpty() || styleWeights.containsValue(null)) {
+            return true;
+        }
+        long total = styleWeights.values().stream().mapToLong(Integer::longValue).sum();
+        return total > 0 && total <= Integer.MAX_VALUE;
+    }
+}
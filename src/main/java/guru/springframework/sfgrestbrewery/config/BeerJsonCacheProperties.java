@@ -0,0 +1,30 @@
+package guru.springframework.sfgrestbrewery.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Limits for the beerJsonCache, which keeps single beers as encoded JSON in direct buffers.
+ */
+@Data
+@ConfigurationProperties("sfg.brewery.json-cache")
+public class BeerJsonCacheProperties {
+
+    /**
+     * When off, every single-beer read is encoded again.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Upper bound on the encoded bytes held off-heap, across all entries.
+     */
+    private DataSize maximumSize = DataSize.ofMegabytes(16);
+
+    /**
+     * Entries are dropped this long after they were encoded.
+     */
+    private Duration expireAfterWrite = Duration.ofMinutes(30);
+}
@@ -0,0 +1,30 @@
+package guru.springframework.sfgrestbrewery.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Micro-batching of beer reads by id: lookups arriving within {@code window} of each other are read with one
+ * IN query, up to {@code maxSize} ids per query.
+ */
+@Data
+@ConfigurationProperties("sfg.brewery.beer-lookup-batch")
+public class BeerLookupBatchProperties {
+
+    /**
+     * Off by default - a lone lookup waits up to {@code window} for company.
+     */
+    private boolean enabled = false;
+
+    /**
+     * How long the first lookup of a batch waits for others to join.
+     */
+    private Duration window = Duration.ofMillis(2);
+
+    /**
+     * A batch is sent as soon as it holds this many lookups.
+     */
+    private int maxSize = 100;
+}
@@ -0,0 +1,33 @@
+package guru.springframework.sfgrestbrewery.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * When the demo catalog is reset to the initial beers.
+ */
+@Data
+@ConfigurationProperties("sfg.brewery.reset")
+public class BeerResetProperties {
+
+    /**
+     * Off by default, as a reset deletes whatever was written since the last one. Meant for a public demo
+     * instance that should keep going back to the initial beers.
+     */
+    private boolean enabled = false;
+
+    /**
+     * When enabled, the catalog is reset as soon as a check finds more beers than this, so a batch or sync that
+     * takes it past 100 beers is wiped within {@link #checkInterval}.
+     */
+    private long maxBeers = 100;
+
+    private Duration checkInterval = Duration.ofSeconds(15);
+
+    /**
+     * Unconditional reset period. The first one happens one period after startup.
+     */
+    private Duration resetInterval = Duration.ofHours(1);
+}
@@ -0,0 +1,60 @@
+package guru.springframework.sfgrestbrewery.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import guru.springframework.sfgrestbrewery.web.codec.BeerJsonModule;
+import guru.springframework.sfgrestbrewery.web.codec.BeerMediaTypes;
+import guru.springframework.sfgrestbrewery.web.codec.CborEncoder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.MimeType;
+
+/**
+ * WebFlux codecs - JSON (including NDJSON and event streams) is read and written with the application's
+ * ObjectMapper plus {@link BeerJsonModule}, for both the server and {@code WebClient.Builder}. JSON stays the
+ * default: any endpoint that doesn't negotiate answers JSON whatever else is registered.
+ *
+ * Smile ({@code application/x-jackson-smile}, streamed as {@code application/stream+x-jackson-smile}) and CBOR
+ * ({@code application/cbor}, streamed as {@code application/cbor-seq}) use mappers built with Boot's Jackson
+ * settings and the same module, so they carry exactly the fields the JSON does.
+ */
+@Configuration
+public class CodecConfig {
+
+    @Bean
+    @Order(1) // after Boot's own Jackson customizer, which would otherwise replace these codecs
+    CodecCustomizer beerCodecCustomizer(ObjectMapper objectMapper, ObjectProvider<Jackson2ObjectMapperBuilder> builders) {
+        ObjectMapper beerObjectMapper = objectMapper.copy().registerModule(new BeerJsonModule());
+        ObjectMapper smileMapper = builders.getObject().factory(new SmileFactory()).build().registerModule(new BeerJsonModule());
+        ObjectMapper cborMapper = builders.getObject().factory(new CBORFactory()).build().registerModule(new BeerJsonModule());
+
+        // the mime types must be passed explicitly, without them the Jackson codecs claim JSON
+        MimeType[] smileTypes = { BeerMediaTypes.APPLICATION_SMILE, new MimeType("application", "*+x-jackson-smile") };
+
+        return configurer -> {
+            Jackson2JsonEncoder jsonEncoder = new Jackson2JsonEncoder(beerObjectMapper);
+            configurer.defaultCodecs().jackson2JsonEncoder(jsonEncoder);
+            configurer.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(beerObjectMapper));
+            configurer.defaultCodecs().jackson2SmileEncoder(new Jackson2SmileEncoder(smileMapper, smileTypes));
+            configurer.defaultCodecs().jackson2SmileDecoder(new Jackson2SmileDecoder(smileMapper, smileTypes));
+            configurer.customCodecs().register(new Jackson2CborDecoder(cborMapper, MediaType.APPLICATION_CBOR));
+            // DefaultCodecs has no CBOR slot, so CBOR can only be a custom writer, and custom writers are always
+            // listed ahead of every default. Without produces, a wildcard Accept gets the first writable type, so
+            // the JSON encoder is registered once more, as a custom writer ahead of CBOR, to keep JSON the
+            // default (BeerContentNegotiationTest pins this)
+            configurer.customCodecs().register(jsonEncoder);
+            configurer.customCodecs().register(new CborEncoder(cborMapper));
+        };
+    }
+}
@@ -1,7 +1,21 @@
 package guru.springframework.sfgrestbrewery.config;
 
+import io.r2dbc.h2.H2ConnectionConfiguration;
 import io.r2dbc.h2.H2ConnectionFactory;
+import io.r2dbc.h2.H2ConnectionOption;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.proxy.ProxyConnectionFactory;
 import io.r2dbc.spi.ConnectionFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.metrics.r2dbc.ConnectionPoolMetrics;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.PropertyMapper;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.r2dbc.config.AbstractR2dbcConfiguration;
@@ -9,13 +23,24 @@ import org.springframework.data.r2dbc.repository.config.EnableR2dbcRepositories;
 import org.springframework.r2dbc.connection.R2dbcTransactionManager;
 import org.springframework.transaction.ReactiveTransactionManager;
 // Only For Testing Webflux
+// binds its own properties, and metrics fall back to the global registry, so @WebFluxTest slices can import it
 @Configuration
 @EnableR2dbcRepositories
+@EnableConfigurationProperties({R2dbcProperties.class, StatementMetricsProperties.class})
+@RequiredArgsConstructor
 public class DatabaseConfig extends AbstractR2dbcConfiguration {
 
+    private static final String POOL_NAME = "connectionFactory";
+
+    private final R2dbcProperties r2dbcProperties;
+    private final ObjectProvider<MeterRegistry> meterRegistryProvider;
+    private final StatementMetricsProperties statementMetricsProperties;
+
     @Override
     @Bean
     public ConnectionFactory connectionFactory() {
+        MeterRegistry meterRegistry = meterRegistryProvider.getIfAvailable(() -> Metrics.globalRegistry);
+
         //ConnectionFactory factory = ConnectionFactories.get("r2dbc:h2:mem:///test?options=DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE");
 
         //see: https://github.com/spring-projects/spring-data-r2dbc/issues/269
@@ -27,7 +52,43 @@ public class DatabaseConfig extends AbstractR2dbcConfiguration {
 //                        .password("password").build()
 //        );
 
-        return H2ConnectionFactory.inMemory("testdb");
+        // LAZY_QUERY_EXECUTION makes H2 produce rows as the result is iterated instead of materializing it,
+        // so streamed selects only read as far as the subscriber has asked for
+        H2ConnectionFactory h2ConnectionFactory = new H2ConnectionFactory(H2ConnectionConfiguration.builder()
+                .inMemory("testdb")
+                .username("sa")
+                .password("")
+                .property(H2ConnectionOption.DB_CLOSE_DELAY, "-1")
+                .property("LAZY_QUERY_EXECUTION", "1")
+                .build());
+
+        // the proxy sits under the pool, so every pooled connection reports its statements
+        ConnectionFactory pooledConnectionFactory = h2ConnectionFactory;
+        if (statementMetricsProperties.isEnabled()) {
+            pooledConnectionFactory = ProxyConnectionFactory.builder(h2ConnectionFactory)
+                    .listener(new StatementMetricsListener(meterRegistry, statementMetricsProperties))
+                    .build();
+        }
+
+        // sized by the standard spring.r2dbc.pool.* properties
+        R2dbcProperties.Pool pool = r2dbcProperties.getPool();
+        ConnectionPoolConfiguration.Builder poolConfiguration = ConnectionPoolConfiguration.builder(pooledConnectionFactory)
+                .name(POOL_NAME);
+        PropertyMapper map = PropertyMapper.get().alwaysApplyingWhenNonNull();
+        map.from(pool.getInitialSize()).to(poolConfiguration::initialSize);
+        map.from(pool.getMaxSize()).to(poolConfiguration::maxSize);
+        map.from(pool.getMaxIdleTime()).to(poolConfiguration::maxIdleTime);
+        map.from(pool.getMaxLifeTime()).to(poolConfiguration::maxLifeTime);
+        map.from(pool.getMaxAcquireTime()).to(poolConfiguration::maxAcquireTime);
+        map.from(pool.getMaxCreateConnectionTime()).to(poolConfiguration::maxCreateConnectionTime);
+        map.from(pool.getValidationQuery()).whenHasText().to(poolConfiguration::validationQuery);
+        map.from(pool.getValidationDepth()).to(poolConfiguration::validationDepth);
+
+        ConnectionPool connectionPool = new ConnectionPool(poolConfiguration.build());
+        // acquired, allocated, idle, pending and max gauges, as Boot would bind them for a bare ConnectionPool bean
+        new ConnectionPoolMetrics(connectionPool, POOL_NAME, Tags.empty()).bindTo(meterRegistry);
+
+        return new TimedConnectionFactory(connectionPool, POOL_NAME, meterRegistry);
     }
 
     @Bean
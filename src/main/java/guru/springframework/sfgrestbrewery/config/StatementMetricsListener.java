@@ -0,0 +1,149 @@
+package guru.springframework.sfgrestbrewery.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.r2dbc.proxy.core.Binding;
+import io.r2dbc.proxy.core.Bindings;
+import io.r2dbc.proxy.core.BoundValue;
+import io.r2dbc.proxy.core.QueryExecutionInfo;
+import io.r2dbc.proxy.core.QueryInfo;
+import io.r2dbc.proxy.listener.ProxyExecutionListener;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * r2dbc-proxy listener recording every executed statement as {@code r2dbc.statement} (time) and
+ * {@code r2dbc.statement.rows} (rows returned), tagged with the normalized SQL. Statements slower than the
+ * configured threshold are logged, rate limited per statement, with bind values replaced by their types.
+ */
+@Slf4j
+public class StatementMetricsListener implements ProxyExecutionListener {
+
+    private static final String ROWS = StatementMetricsListener.class.getName() + ".rows";
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w$.])\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bIN\\s*\\([^()]*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final MeterRegistry meterRegistry;
+    private final StatementMetricsProperties properties;
+    // keyed on raw SQL, which is unbounded once literals are inlined, so both are size bounded
+    private final Cache<String, String> normalized;
+    private final Cache<String, SlowQueryLog> slowQueryLogs;
+
+    public StatementMetricsListener(MeterRegistry meterRegistry, StatementMetricsProperties properties) {
+        this.meterRegistry = meterRegistry;
+        this.properties = properties;
+        this.normalized = Caffeine.newBuilder().maximumSize(properties.getStatementCacheSize()).build();
+        this.slowQueryLogs = Caffeine.newBuilder().maximumSize(properties.getStatementCacheSize()).build();
+    }
+
+    @Override
+    public void eachQueryResult(QueryExecutionInfo execInfo) {
+        // getCurrentResultCount restarts with every Result, and a batch has one per set of binds
+        execInfo.getValueStore().get(ROWS, AtomicInteger.class).incrementAndGet();
+    }
+
+    @Override
+    public void beforeQuery(QueryExecutionInfo execInfo) {
+        execInfo.getValueStore().put(ROWS, new AtomicInteger());
+    }
+
+    /**
+     * Called once the statement's results have been consumed, so the duration includes reading the rows.
+     */
+    @Override
+    public void afterQuery(QueryExecutionInfo execInfo) {
+        String statement = execInfo.getQueries().stream()
+                .map(query -> normalized.get(query.getQuery(), StatementMetricsListener::normalize))
+                .collect(Collectors.joining("; "));
+        Duration duration = execInfo.getExecuteDuration();
+        int rows = execInfo.getValueStore().get(ROWS, AtomicInteger.class).get();
+
+        Timer.builder("r2dbc.statement")
+                .description("Time taken to execute a statement and read its results")
+                .tags("statement", statement, "outcome", execInfo.isSuccess() ? "success" : "error")
+                .register(meterRegistry)
+                .record(duration);
+        DistributionSummary.builder("r2dbc.statement.rows")
+                .description("Rows returned per statement execution")
+                .tags("statement", statement)
+                .register(meterRegistry)
+                .record(rows);
+
+        if (duration.compareTo(properties.getSlowQueryThreshold()) >= 0) {
+            long skipped = slowQueryLogs.get(statement, key -> new SlowQueryLog())
+                    .tryAcquire(properties.getSlowQueryLogInterval().toNanos());
+            if (skipped >= 0) {
+                log.warn("Slow query ({} ms, {} rows, {} more since last logged): {} binds: {}",
+                        duration.toMillis(), rows, skipped, statement, redactedBindings(execInfo.getQueries()));
+            }
+        }
+    }
+
+    /**
+     * Replaces literals with {@code ?} and collapses IN lists, so executions that differ only in values
+     * are reported as one statement.
+     */
+    static String normalize(String sql) {
+        String normalized = STRING_LITERAL.matcher(sql).replaceAll("?");
+        normalized = NUMBER_LITERAL.matcher(normalized).replaceAll("?");
+        normalized = IN_LIST.matcher(normalized).replaceAll("IN (...)");
+        return WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+    }
+
+    /**
+     * Types of the first set of binds, and how many sets a batch had. Values are never logged.
+     */
+    private static String redactedBindings(List<QueryInfo> queries) {
+        return queries.stream().map(query -> {
+            List<Bindings> bindingsList = query.getBindingsList();
+            if (bindingsList.isEmpty()) {
+                return "[]";
+            }
+
+            String types = bindingsList.get(0).getIndexBindings().stream()
+                    .map(binding -> "$" + (((Integer) binding.getKey()) + 1) + "=" + type(binding))
+                    .collect(Collectors.joining(", ", "[", "]"));
+            return bindingsList.size() == 1 ? types : types + " x" + bindingsList.size();
+        }).collect(Collectors.joining("; "));
+    }
+
+    private static String type(Binding binding) {
+        BoundValue value = binding.getBoundValue();
+        return value.isNull()
+                ? "null(" + value.getNullType().getSimpleName() + ")"
+                : value.getValue().getClass().getSimpleName();
+    }
+
+    private static class SlowQueryLog {
+
+        private final AtomicLong nextLogAt = new AtomicLong();
+        private final AtomicLong skipped = new AtomicLong();
+
+        /**
+         * Returns the number of slow executions skipped since the last log line if this one may be logged,
+         * or -1 if it falls within the interval.
+         */
+        long tryAcquire(long intervalNanos) {
+            long now = System.nanoTime();
+            long next = nextLogAt.get();
+
+            if (now - next >= 0 && nextLogAt.compareAndSet(next, now + intervalNanos)) {
+                return skipped.getAndSet(0);
+            }
+            skipped.incrementAndGet();
+            return -1;
+        }
+    }
+}
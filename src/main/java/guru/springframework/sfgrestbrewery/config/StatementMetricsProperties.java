@@ -0,0 +1,32 @@
+package guru.springframework.sfgrestbrewery.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Per statement timing and the slow query log, see {@link StatementMetricsListener}.
+ */
+@Data
+@ConfigurationProperties("sfg.brewery.statement-metrics")
+public class StatementMetricsProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Statements taking at least this long are logged as slow.
+     */
+    private Duration slowQueryThreshold = Duration.ofMillis(200);
+
+    /**
+     * Each statement is logged as slow at most once per interval; the log line says how many were skipped.
+     */
+    private Duration slowQueryLogInterval = Duration.ofSeconds(10);
+
+    /**
+     * Most SQL strings whose normalized form is remembered, and most statements rate limited separately in the
+     * slow query log. Entries beyond this are evicted.
+     */
+    private long statementCacheSize = 1_000;
+}
@@ -1,21 +1,141 @@
 package guru.springframework.sfgrestbrewery.config;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Task Configuration - enable asyc tasks
+ *
+ * Tasks run on a bounded pool sized by {@link TaskExecutorProperties}, or on virtual threads when enabled and
+ * supported. Pool metrics are published as {@code executor.*} with {@code name=taskExecutor}, plus
+ * {@code executor.rejected} for tasks turned away by a full pool.
  */
+@Slf4j
 @EnableScheduling
 @EnableAsync
 @Configuration
 public class TaskConfig {
+
+    private static final String EXECUTOR_NAME = "taskExecutor";
+
     @Bean
-    TaskExecutor taskExecutor() {
-        return new SimpleAsyncTaskExecutor();
+    TaskExecutor taskExecutor(TaskExecutorProperties properties, MeterRegistry meterRegistry) {
+        if (properties.isVirtualThreads()) {
+            Optional<ExecutorService> virtualThreads = virtualThreadPerTaskExecutor();
+            if (virtualThreads.isPresent()) {
+                return virtualThreadTaskExecutor(virtualThreads.get(), meterRegistry);
+            }
+            log.warn("Virtual threads requested but not available on this JVM, using a bounded pool");
+        }
+
+        Counter rejected = Counter.builder("executor.rejected")
+                .description("Tasks rejected because the pool and its queue were full")
+                .tag("name", EXECUTOR_NAME)
+                .register(meterRegistry);
+        RejectedExecutionHandler policy = rejectionHandler(properties.getRejectionPolicy());
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor() {
+            @Override
+            protected ExecutorService initializeExecutor(ThreadFactory threadFactory,
+                                                         RejectedExecutionHandler rejectedExecutionHandler) {
+                ExecutorService executorService = super.initializeExecutor(threadFactory, rejectedExecutionHandler);
+                // active, queued, pool size, completed...
+                new ExecutorServiceMetrics(executorService, EXECUTOR_NAME, Tags.empty()).bindTo(meterRegistry);
+                return executorService;
+            }
+        };
+        executor.setCorePoolSize(properties.getCoreSize());
+        executor.setMaxPoolSize(properties.getMaxSize());
+        executor.setQueueCapacity(properties.getQueueCapacity());
+        executor.setKeepAliveSeconds((int) properties.getKeepAlive().getSeconds());
+        executor.setThreadNamePrefix(properties.getThreadNamePrefix());
+        executor.setRejectedExecutionHandler((task, pool) -> {
+            rejected.increment();
+            policy.rejectedExecution(task, pool);
+        });
+        // initialized (and its metrics bound) by the container, as it is an InitializingBean
+        return executor;
+    }
+
+    private TaskExecutor virtualThreadTaskExecutor(ExecutorService executorService, MeterRegistry meterRegistry) {
+        log.info("Running async tasks on virtual threads");
+        return new VirtualThreadTaskExecutor(executorService, meterRegistry);
+    }
+
+    /**
+     * Runs each task on the given executor, counting the running ones. The executor is shut down with the
+     * context, as {@link ThreadPoolTaskExecutor} does its pool.
+     */
+    static class VirtualThreadTaskExecutor extends TaskExecutorAdapter implements DisposableBean {
+
+        private final ExecutorService executorService;
+
+        VirtualThreadTaskExecutor(ExecutorService executorService, MeterRegistry meterRegistry) {
+            this(ExecutorServiceMetrics.monitor(meterRegistry, executorService, EXECUTOR_NAME, Tags.empty()),
+                    // there is no pool or queue to report on, only how many tasks are running
+                    meterRegistry.gauge("executor.active", Tags.of("name", EXECUTOR_NAME), new AtomicInteger()));
+        }
+
+        private VirtualThreadTaskExecutor(ExecutorService executorService, AtomicInteger active) {
+            super(executorService);
+            this.executorService = executorService;
+            setTaskDecorator(task -> () -> {
+                active.incrementAndGet();
+                try {
+                    task.run();
+                } finally {
+                    active.decrementAndGet();
+                }
+            });
+        }
+
+        @Override
+        public void destroy() {
+            executorService.shutdown();
+        }
+    }
+
+    /**
+     * {@code Executors.newVirtualThreadPerTaskExecutor()} looked up reflectively, as the build targets a JDK
+     * without it.
+     */
+    private static Optional<ExecutorService> virtualThreadPerTaskExecutor() {
+        try {
+            return Optional.of((ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null));
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static RejectedExecutionHandler rejectionHandler(TaskExecutorProperties.RejectionPolicy rejectionPolicy) {
+        switch (rejectionPolicy) {
+            case CALLER_RUNS:
+                return new ThreadPoolExecutor.CallerRunsPolicy();
+            case DISCARD:
+                return new ThreadPoolExecutor.DiscardPolicy();
+            case DISCARD_OLDEST:
+                return new ThreadPoolExecutor.DiscardOldestPolicy();
+            default:
+                return new ThreadPoolExecutor.AbortPolicy();
+        }
     }
 }
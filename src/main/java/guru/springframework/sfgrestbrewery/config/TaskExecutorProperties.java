@@ -0,0 +1,55 @@
+package guru.springframework.sfgrestbrewery.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Sizing of the executor behind {@code @Async} tasks.
+ */
+@Data
+@ConfigurationProperties("sfg.brewery.task-executor")
+public class TaskExecutorProperties {
+
+    public enum RejectionPolicy {
+        /**
+         * Throw {@link java.util.concurrent.RejectedExecutionException} to the submitter.
+         */
+        ABORT,
+        /**
+         * Run the task on the submitting thread, which slows submitters down.
+         */
+        CALLER_RUNS,
+        /**
+         * Silently drop the task.
+         */
+        DISCARD,
+        /**
+         * Drop the oldest queued task to make room.
+         */
+        DISCARD_OLDEST
+    }
+
+    private int coreSize = 4;
+
+    private int maxSize = 16;
+
+    /**
+     * Tasks queued once all core threads are busy; threads beyond the core size are only started when the
+     * queue is full.
+     */
+    private int queueCapacity = 500;
+
+    private Duration keepAlive = Duration.ofSeconds(60);
+
+    private RejectionPolicy rejectionPolicy = RejectionPolicy.ABORT;
+
+    private String threadNamePrefix = "brewery-task-";
+
+    /**
+     * Run each task on its own virtual thread instead of the pool above. Only honoured on a JVM that has
+     * virtual threads; otherwise the pool is used.
+     */
+    private boolean virtualThreads = false;
+}
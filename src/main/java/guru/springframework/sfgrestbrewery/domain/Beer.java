@@ -6,6 +6,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
 //import org.hibernate.annotations.CreationTimestamp;
 //import org.hibernate.annotations.GenericGenerator;
 //import org.hibernate.annotations.Type;
@@ -34,7 +35,7 @@ public class Beer {
     @Id
     private Integer id;
 
-//    @Version
+    @Version
     private Long version;
 
     private String beerName;
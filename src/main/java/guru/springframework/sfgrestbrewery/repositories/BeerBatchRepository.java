@@ -0,0 +1,32 @@
+package guru.springframework.sfgrestbrewery.repositories;
+
+import guru.springframework.sfgrestbrewery.domain.Beer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Bulk operations the derived repository methods can't express.
+ */
+public interface BeerBatchRepository {
+
+    /**
+     * Inserts all beers with one batched statement and returns their generated ids in the same order.
+     */
+    Flux<Integer> insertAll(List<Beer> beers);
+
+    /**
+     * Writes the synced columns (name, style, price, last modified date) of each beer and bumps its version with one
+     * batched UPDATE, but only where the row is still at the version the beer was read with. Other columns are left
+     * as they are. Returns the number of rows updated per beer, in order, so 0 means changed or deleted since read.
+     */
+    Flux<Integer> updateSyncedColumns(List<Beer> beers);
+
+    /**
+     * Writes name, style, upc and price of {@code beer} and bumps its version in one UPDATE, but only if one of
+     * them differs from the stored row and, when {@code expectedVersion} is given, the row is still at that
+     * version. Returns the number of rows updated, so 0 means missing, changed since read, or unchanged.
+     */
+    Mono<Integer> updateIfChanged(Beer beer, Long expectedVersion);
+}
@@ -0,0 +1,122 @@
+package guru.springframework.sfgrestbrewery.repositories;
+
+import guru.springframework.sfgrestbrewery.domain.Beer;
+import io.r2dbc.spi.Statement;
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class BeerBatchRepositoryImpl implements BeerBatchRepository {
+
+    private static final String INSERT_BEER = "INSERT INTO beer (beer_name, beer_style, upc, version, quantity_on_hand, " +
+            "price, created_date, last_modified_date) VALUES ($1, $2, $3, $4, $5, $6, $7, $8)";
+
+    private static final String UPDATE_SYNCED_COLUMNS = "UPDATE beer SET beer_name = $1, beer_style = $2, price = $3, " +
+            "version = COALESCE(version, 0) + 1, last_modified_date = $4 WHERE id = $5 AND COALESCE(version, 0) = $6";
+
+    private static final String UPDATE_BEER_IF_CHANGED = "UPDATE beer SET beer_name = $1, beer_style = $2, upc = $3, " +
+            "price = $4, version = COALESCE(version, 0) + 1, last_modified_date = $5 WHERE id = $6 " +
+            "AND NOT (beer_name IS NOT DISTINCT FROM $1 AND beer_style IS NOT DISTINCT FROM $2 " +
+            "AND upc IS NOT DISTINCT FROM $3 AND price IS NOT DISTINCT FROM $4)";
+
+    private final DatabaseClient databaseClient;
+
+    @Override
+    public Flux<Integer> insertAll(List<Beer> beers) {
+        if (beers.isEmpty()) {
+            return Flux.empty();
+        }
+
+        // the connection comes from DatabaseClient so the insert joins any surrounding transaction
+        return databaseClient.inConnectionMany(connection -> {
+            Statement statement = bindAll(connection.createStatement(INSERT_BEER).returnGeneratedValues("id"), beers);
+
+            return Flux.from(statement.execute())
+                    .concatMap(result -> result.map((row, metadata) -> row.get("id", Integer.class)));
+        });
+    }
+
+    @Override
+    public Flux<Integer> updateSyncedColumns(List<Beer> beers) {
+        if (beers.isEmpty()) {
+            return Flux.empty();
+        }
+
+        return databaseClient.inConnectionMany(connection -> {
+            Statement statement = connection.createStatement(UPDATE_SYNCED_COLUMNS);
+            for (int i = 0; i < beers.size(); i++) {
+                if (i > 0) {
+                    statement.add();
+                }
+                Beer beer = beers.get(i);
+                bind(statement, 0, beer.getBeerName(), String.class);
+                bind(statement, 1, beer.getBeerStyle() == null ? null : beer.getBeerStyle().name(), String.class);
+                bind(statement, 2, beer.getPrice(), BigDecimal.class);
+                bind(statement, 3, beer.getLastModifiedDate(), LocalDateTime.class);
+                bind(statement, 4, beer.getId(), Integer.class);
+                bind(statement, 5, beer.getVersion() == null ? 0L : beer.getVersion(), Long.class);
+            }
+
+            // one result per binding, in binding order
+            return Flux.from(statement.execute()).concatMap(result -> result.getRowsUpdated());
+        });
+    }
+
+    @Override
+    public Mono<Integer> updateIfChanged(Beer beer, Long expectedVersion) {
+        String sql = expectedVersion == null ? UPDATE_BEER_IF_CHANGED : UPDATE_BEER_IF_CHANGED + " AND version = $7";
+
+        return databaseClient.inConnection(connection -> {
+            Statement statement = connection.createStatement(sql);
+            bind(statement, 0, beer.getBeerName(), String.class);
+            bind(statement, 1, beer.getBeerStyle() == null ? null : beer.getBeerStyle().name(), String.class);
+            bind(statement, 2, beer.getUpc(), String.class);
+            bind(statement, 3, beer.getPrice(), BigDecimal.class);
+            bind(statement, 4, beer.getLastModifiedDate(), LocalDateTime.class);
+            bind(statement, 5, beer.getId(), Integer.class);
+            if (expectedVersion != null) {
+                bind(statement, 6, expectedVersion, Long.class);
+            }
+
+            return Flux.from(statement.execute())
+                    .concatMap(result -> result.getRowsUpdated())
+                    .reduce(0, Integer::sum);
+        });
+    }
+
+    /**
+     * Binds one set of the eight beer columns per beer, in the column order of the insert.
+     */
+    private static Statement bindAll(Statement statement, List<Beer> beers) {
+        for (int i = 0; i < beers.size(); i++) {
+            if (i > 0) {
+                statement.add();
+            }
+            Beer beer = beers.get(i);
+            bind(statement, 0, beer.getBeerName(), String.class);
+            bind(statement, 1, beer.getBeerStyle() == null ? null : beer.getBeerStyle().name(), String.class);
+            bind(statement, 2, beer.getUpc(), String.class);
+            // new rows start at version 0 so that conditional updates can match them
+            bind(statement, 3, beer.getVersion() == null ? 0L : beer.getVersion(), Long.class);
+            bind(statement, 4, beer.getQuantityOnHand(), Integer.class);
+            bind(statement, 5, beer.getPrice(), BigDecimal.class);
+            bind(statement, 6, beer.getCreatedDate(), LocalDateTime.class);
+            bind(statement, 7, beer.getLastModifiedDate(), LocalDateTime.class);
+        }
+        return statement;
+    }
+
+    private static void bind(Statement statement, int index, Object value, Class<?> type) {
+        if (value == null) {
+            statement.bindNull(index, type);
+        } else {
+            statement.bind(index, value);
+        }
+    }
+}
@@ -5,14 +5,17 @@ import guru.springframework.sfgrestbrewery.domain.Beer;
 import guru.springframework.sfgrestbrewery.web.model.v2.BeerStyleEnum;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.r2dbc.repository.Query;
 //import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Collection;
 import java.util.UUID;
 
 
-public interface BeerRepository extends ReactiveCrudRepository<Beer, Integer> {
+public interface BeerRepository extends ReactiveCrudRepository<Beer, Integer>, BeerBatchRepository {
 //    Page<Beer> findAllByBeerName(String beerName, Pageable pageable);
 //
 //    Page<Beer> findAllByBeerStyle(BeerStyleEnum beerStyle, Pageable pageable);
@@ -21,6 +24,17 @@ public interface BeerRepository extends ReactiveCrudRepository<Beer, Integer> {
 
     Mono<Beer> findByUpc(String upc);
 
+    Flux<Beer> findAllByUpcIn(Collection<String> upcs);
+
+    @Query("SELECT upc FROM beer WHERE upc IN (:upcs)")
+    Flux<String> findUpcsIn(Collection<String> upcs);
+
+    /**
+     * H2's statistics based row count - cheap, but only approximate.
+     */
+    @Query("SELECT ROW_COUNT_ESTIMATE FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_NAME = 'BEER'")
+    Mono<Long> estimateCount();
+
     //these DO NOT WORK, but MAY in future
 //    Flux<Page<Beer>> findAllByBeerName(String beerName, Pageable pageable);
 //
@@ -0,0 +1,60 @@
+package guru.springframework.sfgrestbrewery.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import guru.springframework.sfgrestbrewery.config.BeerCountProperties;
+import guru.springframework.sfgrestbrewery.web.model.v2.BeerStyleEnum;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Caches total row counts per listing filter. Any write clears every entry, since a single insert,
+ * update or delete can move a beer in or out of several filters at once.
+ */
+@Component
+public class BeerCountCache {
+
+    private final Cache<String, Long> counts;
+
+    // bumped on every invalidation so a count that was in flight during a write is not stored
+    private final AtomicLong generation = new AtomicLong();
+
+    public BeerCountCache(BeerCountProperties properties) {
+        this.counts = Caffeine.newBuilder()
+                .maximumSize(properties.getCacheSize())
+                .expireAfterWrite(properties.getCacheTtl())
+                .build();
+    }
+
+    public Mono<Long> get(String beerName, BeerStyleEnum beerStyle, Supplier<Mono<Long>> counter) {
+        String key = key(beerName, beerStyle);
+
+        return Mono.defer(() -> {
+            Long cached = counts.getIfPresent(key);
+            if (cached != null) {
+                return Mono.just(cached);
+            }
+
+            long started = generation.get();
+            return counter.get().doOnNext(count -> {
+                counts.put(key, count);
+                if (generation.get() != started) {
+                    counts.invalidate(key);
+                }
+            });
+        });
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        counts.invalidateAll();
+    }
+
+    private static String key(String beerName, BeerStyleEnum beerStyle) {
+        return (StringUtils.hasText(beerName) ? beerName : "") + "|" + (beerStyle == null ? "" : beerStyle.name());
+    }
+}
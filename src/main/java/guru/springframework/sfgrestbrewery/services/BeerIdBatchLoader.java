@@ -0,0 +1,101 @@
+package guru.springframework.sfgrestbrewery.services;
+
+import guru.springframework.sfgrestbrewery.config.BeerLookupBatchProperties;
+import guru.springframework.sfgrestbrewery.domain.Beer;
+import guru.springframework.sfgrestbrewery.repositories.BeerRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Reads beers by id, DataLoader style: when batching is enabled, lookups are queued and every window (or
+ * every {@code maxSize} lookups) the queue is read with a single {@code WHERE id IN (...)} query and the
+ * rows are handed back to each caller. When disabled every lookup is its own {@code findById}.
+ */
+@Component
+@RequiredArgsConstructor
+public class BeerIdBatchLoader {
+
+    private final BeerRepository beerRepository;
+    private final BeerLookupBatchProperties properties;
+
+    private final Object lock = new Object();
+    private List<PendingLookup> pending = new ArrayList<>();
+
+    public Mono<Beer> load(Integer beerId) {
+        if (!properties.isEnabled()) {
+            return beerRepository.findById(beerId);
+        }
+
+        return Mono.defer(() -> {
+            CompletableFuture<Beer> future = new CompletableFuture<>();
+            enqueue(new PendingLookup(beerId, future));
+            return Mono.fromFuture(future);
+        });
+    }
+
+    private void enqueue(PendingLookup lookup) {
+        List<PendingLookup> full = null;
+
+        synchronized (lock) {
+            pending.add(lookup);
+
+            if (pending.size() >= properties.getMaxSize()) {
+                full = takePending();
+            } else if (pending.size() == 1) {
+                List<PendingLookup> batch = pending;
+                Schedulers.parallel().schedule(() -> flush(batch), properties.getWindow().toNanos(), TimeUnit.NANOSECONDS);
+            }
+        }
+
+        if (full != null) {
+            dispatch(full);
+        }
+    }
+
+    private void flush(List<PendingLookup> batch) {
+        synchronized (lock) {
+            if (pending != batch) {
+                // already sent because it filled up before the window closed
+                return;
+            }
+            takePending();
+        }
+        dispatch(batch);
+    }
+
+    // callers hold the lock
+    private List<PendingLookup> takePending() {
+        List<PendingLookup> batch = pending;
+        pending = new ArrayList<>();
+        return batch;
+    }
+
+    private void dispatch(List<PendingLookup> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        Set<Integer> beerIds = batch.stream().map(PendingLookup::getBeerId).collect(Collectors.toSet());
+
+        beerRepository.findAllById(beerIds)
+                .collectMap(Beer::getId)
+                .subscribe(beers -> batch.forEach(lookup -> lookup.getFuture().complete(beers.get(lookup.getBeerId()))),
+                        error -> batch.forEach(lookup -> lookup.getFuture().completeExceptionally(error)));
+    }
+
+    @Value
+    private static class PendingLookup {
+        Integer beerId;
+        CompletableFuture<Beer> future;
+    }
+}
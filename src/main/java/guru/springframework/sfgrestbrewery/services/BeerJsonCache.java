@@ -0,0 +1,99 @@
+package guru.springframework.sfgrestbrewery.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import guru.springframework.sfgrestbrewery.config.BeerJsonCacheProperties;
+import guru.springframework.sfgrestbrewery.web.model.BeerDto;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.Value;
+import org.springframework.core.codec.EncodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.util.function.Supplier;
+
+/**
+ * Single beers as already encoded JSON, keyed by id and inventory flag. The bytes live in direct buffers, so a
+ * hot catalog costs neither heap nor a mapper and Jackson pass per read; hits are handed to the response as
+ * read-only views of the stored buffer.
+ *
+ * Bounded by total encoded bytes. Caffeine's frequency-based admission keeps the hot beers when the catalog
+ * doesn't fit. Every write in {@link BeerServiceImpl} evicts the beers it touched.
+ */
+@Component
+public class BeerJsonCache {
+
+    private final AsyncCache<Key, ByteBuffer> jsonCache;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+
+    public BeerJsonCache(BeerJsonCacheProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.enabled = properties.isEnabled();
+        this.jsonCache = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+                .maximumWeight(properties.getMaximumSize().toBytes())
+                .<Key, ByteBuffer>weigher((key, json) -> json.capacity())
+                .expireAfterWrite(properties.getExpireAfterWrite())
+                .recordStats()
+                .<Key, ByteBuffer>buildAsync(), "beerJsonCache");
+
+        Gauge.builder("beer.json.cache.hit.ratio", jsonCache, cache -> cache.synchronous().stats().hitRate())
+                .description("Share of single-beer reads answered from the encoded JSON cache")
+                .register(meterRegistry);
+        Gauge.builder("beer.json.cache.resident", jsonCache, cache -> cache.synchronous().policy().eviction()
+                        .map(eviction -> eviction.weightedSize().orElse(0L))
+                        .orElse(0L))
+                .description("Encoded JSON held off-heap by the beer JSON cache")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * The beer encoded as JSON, calling {@code loader} and encoding its result on a miss. Completes empty if the
+     * loader does; that is not cached.
+     */
+    public Mono<DataBuffer> get(Integer beerId, boolean showInventory, DataBufferFactory bufferFactory,
+                                Supplier<Mono<BeerDto>> loader) {
+        if (!enabled) {
+            return loader.get().map(beerDto -> bufferFactory.wrap(encode(beerDto)));
+        }
+
+        // subscribe to a copy, so a cancelled caller cannot cancel the load shared with other callers
+        return Mono.fromFuture(jsonCache.get(new Key(beerId, showInventory),
+                        (key, executor) -> loader.get().map(this::encode).toFuture()).copy())
+                .map(json -> bufferFactory.wrap(json.asReadOnlyBuffer()));
+    }
+
+    public void evict(Integer beerId) {
+        jsonCache.synchronous().invalidate(new Key(beerId, false));
+        jsonCache.synchronous().invalidate(new Key(beerId, true));
+    }
+
+    public void invalidateAll() {
+        jsonCache.synchronous().invalidateAll();
+    }
+
+    private ByteBuffer encode(BeerDto beerDto) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(beerDto);
+            ByteBuffer buffer = ByteBuffer.allocateDirect(json.length);
+            buffer.put(json).flip();
+            return buffer;
+        } catch (JsonProcessingException e) {
+            throw new EncodingException("Could not encode beer " + beerDto.getId(), e);
+        }
+    }
+
+    @Value
+    private static class Key {
+        Integer beerId;
+        boolean showInventory;
+    }
+}
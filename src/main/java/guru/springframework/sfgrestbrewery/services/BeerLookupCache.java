@@ -0,0 +1,161 @@
+package guru.springframework.sfgrestbrewery.services;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import guru.springframework.sfgrestbrewery.config.BeerCacheProperties;
+import guru.springframework.sfgrestbrewery.web.model.BeerDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Async caches of resolved beers. Concurrent misses for the same key share a single load, and
+ * empty results are not cached.
+ *
+ * The upc cache only maps upc to id, so writes only ever have to touch the id cache. A mapping left
+ * stale by an upc change or delete is detected on read and reloaded.
+ */
+@Component
+public class BeerLookupCache {
+
+    private final AsyncCache<Integer, BeerDto> beerCache;
+    private final AsyncCache<String, Integer> beerUpcCache;
+
+    public BeerLookupCache(BeerCacheProperties properties, MeterRegistry meterRegistry) {
+        this.beerCache = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getExpireAfterWrite())
+                .recordStats()
+                .<Integer, BeerDto>buildAsync(), "beerCache");
+
+        this.beerUpcCache = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+                .maximumSize(properties.getUpcMaximumSize())
+                .expireAfterWrite(properties.getExpireAfterWrite())
+                .recordStats()
+                .<String, Integer>buildAsync(), "beerUpcCache");
+    }
+
+    public Mono<BeerDto> getById(Integer beerId, Function<Integer, Mono<BeerDto>> loader) {
+        return fromCache(beerCache.get(beerId, (id, executor) -> loader.apply(id).toFuture()));
+    }
+
+    /**
+     * The cached beer, without loading it on a miss.
+     */
+    public Mono<BeerDto> getIfPresent(Integer beerId) {
+        CompletableFuture<BeerDto> cached = beerCache.getIfPresent(beerId);
+        return cached == null ? Mono.empty() : fromCache(cached);
+    }
+
+    public Mono<BeerDto> getByUpc(String upc, Function<String, Mono<BeerDto>> upcLoader,
+                                  Function<Integer, Mono<BeerDto>> idLoader) {
+        return idForUpc(upc, upcLoader)
+                .flatMap(beerId -> getById(beerId, idLoader)
+                        .filter(beerDto -> upc.equals(beerDto.getUpc()))
+                        .switchIfEmpty(Mono.defer(() -> {
+                            beerUpcCache.synchronous().invalidate(upc);
+                            return idForUpc(upc, upcLoader).flatMap(reloadedId -> getById(reloadedId, idLoader));
+                        })));
+    }
+
+    /**
+     * Bulk form of {@link #getById}: cached beers are used as they are and the loader is called once, with
+     * only the missing ids. Ids that don't exist are left out of the result.
+     */
+    public Mono<Map<Integer, BeerDto>> getAllById(Collection<Integer> beerIds,
+                                                  Function<Set<Integer>, Mono<Map<Integer, BeerDto>>> loader) {
+        return fromCache(beerCache.getAll(beerIds, (missing, executor) -> loader.apply(toSet(missing)).toFuture()));
+    }
+
+    /**
+     * Bulk form of {@link #getByUpc}. Stale upc mappings are dropped and their UPCs reloaded together.
+     */
+    public Mono<Map<String, BeerDto>> getAllByUpc(Collection<String> upcs,
+                                                  Function<Set<String>, Mono<Map<String, BeerDto>>> upcLoader,
+                                                  Function<Set<Integer>, Mono<Map<Integer, BeerDto>>> idLoader) {
+        return fromCache(beerUpcCache.getAll(upcs, (missing, executor) -> upcLoader.apply(toSet(missing))
+                .map(this::putAllByUpc)
+                .toFuture()))
+                .flatMap(idsByUpc -> getAllById(idsByUpc.values(), idLoader)
+                        .flatMap(beersById -> {
+                            Map<String, BeerDto> beersByUpc = new HashMap<>();
+                            Set<String> stale = new HashSet<>();
+
+                            idsByUpc.forEach((upc, beerId) -> {
+                                BeerDto beerDto = beersById.get(beerId);
+                                if (beerDto != null && upc.equals(beerDto.getUpc())) {
+                                    beersByUpc.put(upc, beerDto);
+                                } else {
+                                    stale.add(upc);
+                                }
+                            });
+
+                            if (stale.isEmpty()) {
+                                return Mono.just(beersByUpc);
+                            }
+
+                            beerUpcCache.synchronous().invalidateAll(stale);
+                            return upcLoader.apply(stale).map(reloaded -> {
+                                putAllByUpc(reloaded).forEach((upc, beerId) ->
+                                        beerUpcCache.put(upc, CompletableFuture.completedFuture(beerId)));
+                                beersByUpc.putAll(reloaded);
+                                return beersByUpc;
+                            });
+                        }));
+    }
+
+    /**
+     * Write-through after an insert or update.
+     */
+    public void put(BeerDto beerDto) {
+        beerCache.put(beerDto.getId(), CompletableFuture.completedFuture(beerDto));
+        if (beerDto.getUpc() != null) {
+            beerUpcCache.put(beerDto.getUpc(), CompletableFuture.completedFuture(beerDto.getId()));
+        }
+    }
+
+    public void evict(Integer beerId) {
+        beerCache.synchronous().invalidate(beerId);
+    }
+
+    public void invalidateAll() {
+        beerCache.synchronous().invalidateAll();
+        beerUpcCache.synchronous().invalidateAll();
+    }
+
+    private Mono<Integer> idForUpc(String upc, Function<String, Mono<BeerDto>> upcLoader) {
+        return fromCache(beerUpcCache.get(upc, (key, executor) -> upcLoader.apply(key)
+                .doOnNext(beerDto -> beerCache.put(beerDto.getId(), CompletableFuture.completedFuture(beerDto)))
+                .map(BeerDto::getId)
+                .toFuture()));
+    }
+
+    private Map<String, Integer> putAllByUpc(Map<String, BeerDto> beersByUpc) {
+        Map<String, Integer> idsByUpc = new HashMap<>();
+        beersByUpc.forEach((upc, beerDto) -> {
+            beerCache.put(beerDto.getId(), CompletableFuture.completedFuture(beerDto));
+            idsByUpc.put(upc, beerDto.getId());
+        });
+        return idsByUpc;
+    }
+
+    private static <K> Set<K> toSet(Iterable<? extends K> keys) {
+        Set<K> set = new HashSet<>();
+        keys.forEach(set::add);
+        return set;
+    }
+
+    private static <V> Mono<V> fromCache(CompletableFuture<V> future) {
+        // subscribe to a copy, so a cancelled caller cannot cancel the load shared with other callers
+        return Mono.fromFuture(future.copy());
+    }
+}
@@ -0,0 +1,34 @@
+package guru.springframework.sfgrestbrewery.services;
+
+import guru.springframework.sfgrestbrewery.web.model.BeerDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Supplier;
+
+/**
+ * Single-flight front for the single beer lookups. How many requests were served by another request's load
+ * is reported as {@code beer.lookup.requests{coalesced=true}}, per lookup.
+ */
+@Component
+public class BeerLookupCoalescer {
+
+    private final SingleFlight<Integer, BeerDto> byId;
+    private final SingleFlight<Integer, BeerDto> byIdWithInventory;
+    private final SingleFlight<String, BeerDto> byUpc;
+
+    public BeerLookupCoalescer(MeterRegistry meterRegistry) {
+        this.byId = new SingleFlight<>("byId", meterRegistry);
+        this.byIdWithInventory = new SingleFlight<>("byIdWithInventory", meterRegistry);
+        this.byUpc = new SingleFlight<>("byUpc", meterRegistry);
+    }
+
+    public Mono<BeerDto> getById(Integer beerId, boolean showInventoryOnHand, Supplier<Mono<BeerDto>> loader) {
+        return (showInventoryOnHand ? byIdWithInventory : byId).execute(beerId, loader);
+    }
+
+    public Mono<BeerDto> getByUpc(String upc, Supplier<Mono<BeerDto>> loader) {
+        return byUpc.execute(upc, loader);
+    }
+}
@@ -0,0 +1,81 @@
+package guru.springframework.sfgrestbrewery.services;
+
+import guru.springframework.sfgrestbrewery.web.model.BeerField;
+import guru.springframework.sfgrestbrewery.web.model.v2.BeerStyleEnum;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.Set;
+
+/**
+ * Times beer service calls as {@code beer.query}, tagged with the query shape (e.g. {@code listBeers-by-name},
+ * {@code findByUpc}) and outcome. A call is timed from subscription until it completes, fails or is cancelled.
+ * Percentiles and histogram buckets are switched on through {@code management.metrics.distribution.*}.
+ */
+@Component
+@RequiredArgsConstructor
+public class BeerQueryMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    public <T> Mono<T> time(String query, Mono<T> mono) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return mono.doFinally(signal -> sample.stop(timer(query, signal)));
+        });
+    }
+
+    public <T> Flux<T> time(String query, Flux<T> flux) {
+        return Flux.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return flux.doFinally(signal -> sample.stop(timer(query, signal)));
+        });
+    }
+
+    /**
+     * Shape of a query filtered by name and/or style, e.g. {@code listBeers-by-name-and-style}.
+     */
+    public static String filtered(String query, String beerName, BeerStyleEnum beerStyle) {
+        boolean byName = StringUtils.hasText(beerName);
+
+        if (byName && beerStyle != null) {
+            return query + "-by-name-and-style";
+        } else if (byName) {
+            return query + "-by-name";
+        } else if (beerStyle != null) {
+            return query + "-by-style";
+        }
+        return query + "-all";
+    }
+
+    /**
+     * Shape of a query that may select only some columns, e.g. {@code listBeers-all-sparse}.
+     */
+    public static String projected(String query, Set<BeerField> fields) {
+        return fields == null ? query : query + "-sparse";
+    }
+
+    private Timer timer(String query, SignalType signal) {
+        return Timer.builder("beer.query")
+                .description("Time taken by beer service calls, by query shape")
+                .tags("query", query, "outcome", outcome(signal))
+                .register(meterRegistry);
+    }
+
+    private static String outcome(SignalType signal) {
+        switch (signal) {
+            case ON_COMPLETE:
+                return "success";
+            case ON_ERROR:
+                return "error";
+            default:
+                return "cancelled";
+        }
+    }
+}
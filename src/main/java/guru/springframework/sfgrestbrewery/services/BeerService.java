@@ -1,31 +1,89 @@
 package guru.springframework.sfgrestbrewery.services;
 
+import guru.springframework.sfgrestbrewery.web.model.BeerBatchResult;
+import guru.springframework.sfgrestbrewery.web.model.BeerCursor;
+import guru.springframework.sfgrestbrewery.web.model.BeerCursorPage;
+import guru.springframework.sfgrestbrewery.web.model.BeerDeleteResult;
 import guru.springframework.sfgrestbrewery.web.model.BeerDto;
+import guru.springframework.sfgrestbrewery.web.model.BeerField;
+import guru.springframework.sfgrestbrewery.web.model.BeerLookupResult;
 import guru.springframework.sfgrestbrewery.web.model.BeerPagedList;
+import guru.springframework.sfgrestbrewery.web.model.BeerPatchDto;
+import guru.springframework.sfgrestbrewery.web.model.BeerSyncResult;
+import guru.springframework.sfgrestbrewery.web.model.SparseBeerDto;
 import guru.springframework.sfgrestbrewery.web.model.v2.BeerStyleEnum;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 /**
  * Created by jt on 2019-04-20.
  */
 public interface BeerService {
-    Mono<BeerPagedList> listBeers(String beerName, BeerStyleEnum beerStyle, PageRequest pageRequest, Boolean showInventoryOnHand);
+    default Mono<BeerPagedList> listBeers(String beerName, BeerStyleEnum beerStyle, PageRequest pageRequest, Boolean showInventoryOnHand) {
+        return listBeers(beerName, beerStyle, pageRequest, showInventoryOnHand, null);
+    }
+
+    /**
+     * Selects only the columns behind {@code fields} and returns {@link SparseBeerDto}s; null selects every field.
+     */
+    Mono<BeerPagedList> listBeers(String beerName, BeerStyleEnum beerStyle, PageRequest pageRequest, Boolean showInventoryOnHand,
+                                  Set<BeerField> fields);
+
+    default Mono<BeerCursorPage> listBeersByCursor(String beerName, BeerStyleEnum beerStyle, BeerCursor.SortKey sortKey,
+                                                   String cursor, Integer pageSize, Boolean showInventoryOnHand) {
+        return listBeersByCursor(beerName, beerStyle, sortKey, cursor, pageSize, showInventoryOnHand, null);
+    }
+
+    /**
+     * Same projection as the paged {@link #listBeers(String, BeerStyleEnum, PageRequest, Boolean, Set)}. Pages hold
+     * at most 1,000 beers, whatever {@code pageSize} asks for.
+     */
+    Mono<BeerCursorPage> listBeersByCursor(String beerName, BeerStyleEnum beerStyle, BeerCursor.SortKey sortKey,
+                                           String cursor, Integer pageSize, Boolean showInventoryOnHand, Set<BeerField> fields);
+
+    Flux<BeerDto> exportBeers(String beerName, BeerStyleEnum beerStyle, Boolean showInventoryOnHand);
 
     Mono<BeerDto> getById(Integer beerId, Boolean showInventoryOnHand);
 
+    /**
+     * A cached beer is trimmed to {@code fields}, anything else is read with a SELECT of just those columns.
+     */
+    Mono<BeerDto> getById(Integer beerId, Boolean showInventoryOnHand, Set<BeerField> fields);
+
+    Mono<List<BeerLookupResult>> getByIds(List<Integer> beerIds, Boolean showInventoryOnHand);
+
     Mono<BeerDto> saveNewBeer(BeerDto beerDto);
 
     Mono<BeerDto> saveNewBeerMono(Mono<BeerDto> beerDto);
 
-    Mono<BeerDto> updateBeer(Integer beerId, BeerDto beerDto);
+    Flux<BeerBatchResult> saveNewBeers(Flux<BeerDto> beerDtos);
+
+    Mono<BeerSyncResult> syncBeers(Flux<BeerDto> beerDtos);
+
+    /**
+     * Errors with {@link guru.springframework.sfgrestbrewery.web.controller.NotFoundException} for an unknown id and
+     * {@link org.springframework.dao.OptimisticLockingFailureException} if {@code beerDto.version} is stale.
+     */
+    Mono<Void> updateBeer(Integer beerId, BeerDto beerDto);
+
+    /**
+     * Same errors as {@link #updateBeer}; the version is always checked.
+     */
+    Mono<Void> patchBeer(Integer beerId, BeerPatchDto patch);
 
     Mono<BeerDto> getByUpc(String upc);
 
-    void deleteBeerById(Integer beerId);
+    Mono<List<BeerLookupResult>> getByUpcs(List<String> upcs);
 
+    /**
+     * Errors with {@link guru.springframework.sfgrestbrewery.web.controller.NotFoundException} if nothing was deleted.
+     */
     Mono<Void> reactiveDeleteById(Integer beerId);
+
+    Mono<BeerDeleteResult> deleteByIds(List<Integer> beerIds);
 }
@@ -1,28 +1,65 @@
 package guru.springframework.sfgrestbrewery.services;
 
+import guru.springframework.sfgrestbrewery.config.BeerBatchProperties;
+import guru.springframework.sfgrestbrewery.config.BeerCountProperties;
 import guru.springframework.sfgrestbrewery.domain.Beer;
 import guru.springframework.sfgrestbrewery.repositories.BeerRepository;
 import guru.springframework.sfgrestbrewery.web.controller.NotFoundException;
 import guru.springframework.sfgrestbrewery.web.mappers.BeerMapper;
+import guru.springframework.sfgrestbrewery.web.model.BeerBatchResult;
+import guru.springframework.sfgrestbrewery.web.model.BeerCursor;
+import guru.springframework.sfgrestbrewery.web.model.BeerCursorPage;
+import guru.springframework.sfgrestbrewery.web.model.BeerDeleteResult;
 import guru.springframework.sfgrestbrewery.web.model.BeerDto;
+import guru.springframework.sfgrestbrewery.web.model.BeerField;
+import guru.springframework.sfgrestbrewery.web.model.BeerLookupResult;
 import guru.springframework.sfgrestbrewery.web.model.BeerPagedList;
+import guru.springframework.sfgrestbrewery.web.model.BeerPatchDto;
+import guru.springframework.sfgrestbrewery.web.model.BeerSyncResult;
+import guru.springframework.sfgrestbrewery.web.model.SparseBeerDto;
 import guru.springframework.sfgrestbrewery.web.model.v2.BeerStyleEnum;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.relational.core.query.Criteria;
 import org.springframework.data.relational.core.query.Query;
+import org.springframework.data.relational.core.query.Update;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
 import org.springframework.util.StringUtils;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.Errors;
+import org.springframework.validation.Validator;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
 
+import static guru.springframework.sfgrestbrewery.services.BeerQueryMetrics.filtered;
+import static guru.springframework.sfgrestbrewery.services.BeerQueryMetrics.projected;
 import static org.springframework.data.relational.core.query.Criteria.where;
-import static org.springframework.data.relational.core.query.Query.empty;
 import static org.springframework.data.relational.core.query.Query.query;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -32,44 +69,39 @@ import java.util.stream.Collectors;
 @Service
 @RequiredArgsConstructor
 public class BeerServiceImpl implements BeerService {
+    private static final int MAX_PAGE_SIZE = 1_000;
+
     private final BeerRepository beerRepository;
     private final BeerMapper beerMapper;
     private final R2dbcEntityTemplate r2dbcEntityTemplate;
+    private final BeerCountCache beerCountCache;
+    private final BeerCountProperties beerCountProperties;
+    private final BeerLookupCache beerLookupCache;
+    private final BeerJsonCache beerJsonCache;
+    private final BeerLookupCoalescer beerLookupCoalescer;
+    private final BeerIdBatchLoader beerIdBatchLoader;
+    private final BeerBatchProperties beerBatchProperties;
+    private final TransactionalOperator transactionalOperator;
+    private final Validator validator;
+    private final BeerQueryMetrics beerQueryMetrics;
 
-    @Cacheable(cacheNames = "beerListCache", condition = "#showInventoryOnHand == false ")
     @Override
-    public Mono<BeerPagedList> listBeers(String beerName, BeerStyleEnum beerStyle, PageRequest pageRequest, Boolean showInventoryOnHand) {
-
-        Query query;
+    public Mono<BeerPagedList> listBeers(String beerName, BeerStyleEnum beerStyle, PageRequest pageRequest, Boolean showInventoryOnHand,
+                                         Set<BeerField> fields) {
 
+        Criteria criteria = filterCriteria(beerName, beerStyle);
 
-        if (!StringUtils.isEmpty(beerName) && !StringUtils.isEmpty(beerStyle)) {
-            //search both
-            // beerPage = beerRepository.findAllByBeerNameAndBeerStyle(beerName, beerStyle, pageRequest);
-            query = query(where("beerName").is(beerName).and("beerStyle").is(beerStyle));
-        } else if (!StringUtils.isEmpty(beerName) && StringUtils.isEmpty(beerStyle)) {
-            //search beer_service name
-            //beerPage = beerRepository.findAllByBeerName(beerName, pageRequest);
-            query = query(where("beerName").is(beerName));
-        } else if (StringUtils.isEmpty(beerName) && !StringUtils.isEmpty(beerStyle)) {
-            //search beer_service style
-            //   beerPage = beerRepository.findAllByBeerStyle(beerStyle, pageRequest);
-            query = query(where("beerStyle").is(beerStyle));
-        } else {
-            //beerPage = beerRepository.findAll(pageRequest);
-            query = empty();
-        }
-        return r2dbcEntityTemplate.select(Beer.class)
-                .matching(query.with(pageRequest))
-                .all()
-                .map(beerMapper::beerToBeerDto)
-                .collect(Collectors.toList())
-                .map(beers -> {
-                    return new BeerPagedList(beers, PageRequest.of(
-                            pageRequest.getPageNumber(),
-                            pageRequest.getPageSize()),
-                            beers.size());
-                });
+        // page and total are independent queries, so run them side by side
+        return beerQueryMetrics.time(projected(filtered("listBeers", beerName, beerStyle), fields), Mono.zip(r2dbcEntityTemplate.select(Beer.class)
+                                .matching(project(query(criteria), fields, false).with(pageRequest))
+                                .all()
+                                .map(toDto(false, fields))
+                                .collect(Collectors.toList()),
+                        countBeers(beerName, beerStyle, criteria))
+                .map(pageAndTotal -> new BeerPagedList(pageAndTotal.getT1(), PageRequest.of(
+                        pageRequest.getPageNumber(),
+                        pageRequest.getPageSize()),
+                        pageAndTotal.getT2())));
 //        if (showInventoryOnHand){
 //            beerPagedList = new BeerPagedList(beerPage
 //                    .getContent()
@@ -95,80 +127,637 @@ public class BeerServiceImpl implements BeerService {
 
     }
 
-    @Cacheable(cacheNames = "beerCache", key = "#beerId", condition = "#showInventoryOnHand == false ")
+    @Override
+    public Mono<BeerCursorPage> listBeersByCursor(String beerName, BeerStyleEnum beerStyle, BeerCursor.SortKey sortKey,
+                                                  String cursor, Integer pageSize, Boolean showInventoryOnHand,
+                                                  Set<BeerField> fields) {
+        String shape = projected(filtered("listBeersByCursor", beerName, beerStyle), fields);
+        Criteria criteria = filterCriteria(beerName, beerStyle);
+        BeerCursor position = null;
+
+        if (StringUtils.hasText(cursor)) {
+            position = BeerCursor.decode(cursor);
+            if (sortKey != null && sortKey != position.getSortKey()) {
+                return Mono.error(new ServerWebInputException("Cursor was issued for a different sort"));
+            }
+            sortKey = position.getSortKey();
+        } else if (sortKey == null) {
+            sortKey = BeerCursor.SortKey.ID;
+        }
+
+        BeerCursor.SortKey sort = sortKey;
+        // keeps limit + 1 from overflowing, and any one page to a bounded read
+        int limit = Math.min(pageSize, MAX_PAGE_SIZE);
+        Function<Beer, BeerDto> toDto = toDto(showInventoryOnHand, fields);
+
+        Flux<Beer> rows;
+        if (position == null) {
+            rows = selectPage(criteria, fields, showInventoryOnHand, sort, limit);
+        } else if (sort == BeerCursor.SortKey.BEER_NAME && position.getLastValue() == null) {
+            // H2 sorts unnamed beers first. One OR of the two seeks would scan the table, so the rest of the
+            // unnamed beers are read first and the named ones only if the page still has room.
+            rows = Flux.concat(
+                    selectPage(criteria.and(where("beerName").isNull().and("id").greaterThan(position.getLastId())),
+                            fields, showInventoryOnHand, sort, limit),
+                    selectPage(criteria.and(where("beerName").greaterThanOrEquals("")),
+                            fields, showInventoryOnHand, sort, limit))
+                    .take(limit + 1);
+        } else {
+            rows = selectPage(criteria.and(seekCriteria(position)), fields, showInventoryOnHand, sort, limit);
+        }
+
+        return beerQueryMetrics.time(shape, rows
+                .collectList()
+                .map(beers -> {
+                    boolean hasNext = beers.size() > limit;
+                    List<Beer> page = hasNext ? beers.subList(0, limit) : beers;
+
+                    String nextCursor = null;
+                    if (hasNext) {
+                        Beer last = page.get(page.size() - 1);
+                        nextCursor = new BeerCursor(sort, last.getId(),
+                                sort == BeerCursor.SortKey.BEER_NAME ? last.getBeerName() : null).encode();
+                    }
+
+                    return BeerCursorPage.builder()
+                            .content(page.stream().map(toDto).collect(Collectors.toList()))
+                            .size(page.size())
+                            .nextCursor(nextCursor)
+                            .build();
+                }));
+    }
+
+    /**
+     * Streams every matching beer in id order. Nothing is collected: rows are read from the result only as
+     * the subscriber requests them, so a slow consumer slows the read instead of growing the heap.
+     */
+    @Override
+    public Flux<BeerDto> exportBeers(String beerName, BeerStyleEnum beerStyle, Boolean showInventoryOnHand) {
+        Function<Beer, BeerDto> toDto = showInventoryOnHand ? beerMapper::beerToBeerDtoWithInventory : beerMapper::beerToBeerDto;
+
+        return beerQueryMetrics.time(filtered("exportBeers", beerName, beerStyle), r2dbcEntityTemplate.select(Beer.class)
+                .matching(query(filterCriteria(beerName, beerStyle)).sort(Sort.by("id")))
+                .all()
+                .map(toDto));
+    }
+
+    private Mono<Long> countBeers(String beerName, BeerStyleEnum beerStyle, Criteria criteria) {
+        Mono<Long> exactCount = beerCountCache.get(beerName, beerStyle,
+                () -> r2dbcEntityTemplate.count(query(criteria), Beer.class));
+
+        long approximateThreshold = beerCountProperties.getApproximateThreshold();
+        if (approximateThreshold <= 0 || !criteria.isEmpty()) {
+            return exactCount;
+        }
+
+        return beerRepository.estimateCount()
+                .filter(estimate -> estimate >= approximateThreshold)
+                .switchIfEmpty(exactCount);
+    }
+
+    /**
+     * Narrows the SELECT to the columns behind {@code fields}, plus id and any {@code required} columns. Inventory
+     * is only read when it is shown.
+     */
+    private static Query project(Query query, Set<BeerField> fields, boolean showInventoryOnHand, String... required) {
+        if (fields == null) {
+            return query;
+        }
+
+        Set<String> columns = new LinkedHashSet<>();
+        columns.add("id");
+        columns.addAll(Arrays.asList(required));
+        for (BeerField field : fields) {
+            if (field != BeerField.QUANTITY_ON_HAND || showInventoryOnHand) {
+                columns.add(field.getColumn());
+            }
+        }
+        return query.columns(columns);
+    }
+
+    private Function<Beer, BeerDto> toDto(boolean showInventoryOnHand, Set<BeerField> fields) {
+        Function<Beer, BeerDto> toDto = showInventoryOnHand ? beerMapper::beerToBeerDtoWithInventory : beerMapper::beerToBeerDto;
+        return fields == null ? toDto : toDto.andThen(beerDto -> new SparseBeerDto(beerDto, fields));
+    }
+
+    private Criteria filterCriteria(String beerName, BeerStyleEnum beerStyle) {
+        Criteria criteria = Criteria.empty();
+
+        if (StringUtils.hasText(beerName)) {
+            criteria = criteria.and("beerName").is(beerName);
+        }
+
+        if (beerStyle != null) {
+            criteria = criteria.and("beerStyle").is(beerStyle);
+        }
+
+        return criteria;
+    }
+
+    /**
+     * One more row than the page holds, in (sort key, id) order. One extra row tells us whether there is a next
+     * page without a count.
+     */
+    private Flux<Beer> selectPage(Criteria criteria, Set<BeerField> fields, boolean showInventoryOnHand,
+                                  BeerCursor.SortKey sort, int limit) {
+        // the next cursor is built from the sort key, so it is read whether or not it was asked for
+        Query query = project(query(criteria), fields, showInventoryOnHand, sort.getProperty())
+                .sort(sort == BeerCursor.SortKey.ID ? Sort.by("id") : Sort.by(sort.getProperty(), "id"))
+                .limit(limit + 1);
+
+        return r2dbcEntityTemplate.select(Beer.class).matching(query).all();
+    }
+
+    /**
+     * Rows strictly after the cursor in (sort key, id) order. The leading {@code >=} keeps the predicate
+     * usable by an index on the sort column.
+     */
+    private Criteria seekCriteria(BeerCursor position) {
+        if (position.getSortKey() == BeerCursor.SortKey.BEER_NAME) {
+            return where("beerName").greaterThanOrEquals(position.getLastValue())
+                    .and(where("beerName").greaterThan(position.getLastValue())
+                            .or("id").greaterThan(position.getLastId()));
+        }
+
+        return where("id").greaterThan(position.getLastId());
+    }
+
     @Override
     public Mono<BeerDto> getById(Integer beerId, Boolean showInventoryOnHand) {
         if (showInventoryOnHand) {
-            return beerRepository.findById(beerId).map(beerMapper::beerToBeerDtoWithInventory);
+            return beerQueryMetrics.time("findByIdWithInventory", beerLookupCoalescer.getById(beerId, true,
+                    () -> beerIdBatchLoader.load(beerId).map(beerMapper::beerToBeerDtoWithInventory)));
 
         } else {
-            return beerRepository.findById(beerId).map(beerMapper::beerToBeerDto);
+            return beerQueryMetrics.time("findById",
+                    beerLookupCoalescer.getById(beerId, false, () -> beerLookupCache.getById(beerId, this::loadById)));
+        }
+
+
+    }
+
+    @Override
+    public Mono<BeerDto> getById(Integer beerId, Boolean showInventoryOnHand, Set<BeerField> fields) {
+        if (fields == null) {
+            return getById(beerId, showInventoryOnHand);
         }
 
+        Mono<BeerDto> selected = r2dbcEntityTemplate.select(Beer.class)
+                .matching(project(query(where("id").is(beerId)), fields, showInventoryOnHand))
+                .one()
+                .map(toDto(showInventoryOnHand, fields));
+
+        // the cache only holds beers without inventory, which is enough unless inventory was asked for
+        if (showInventoryOnHand && fields.contains(BeerField.QUANTITY_ON_HAND)) {
+            return beerQueryMetrics.time("findByIdWithInventory-sparse", selected);
+        }
+        return beerQueryMetrics.time("findById-sparse", beerLookupCache.getIfPresent(beerId)
+                .<BeerDto>map(beerDto -> new SparseBeerDto(beerDto, fields))
+                .switchIfEmpty(selected));
+    }
+
+    /**
+     * Cached beers are served from the cache; all misses are read with a single IN query.
+     */
+    @Override
+    public Mono<List<BeerLookupResult>> getByIds(List<Integer> beerIds, Boolean showInventoryOnHand) {
+        if (beerIds.size() > beerBatchProperties.getMaxIds()) {
+            return Mono.error(tooMany("ids"));
+        }
+        // the cache only holds beers without inventory
+        Mono<Map<Integer, BeerDto>> beers = showInventoryOnHand
+                ? beerRepository.findAllById(beerIds).map(beerMapper::beerToBeerDtoWithInventory).collectMap(BeerDto::getId)
+                : beerLookupCache.getAllById(beerIds, this::loadAllById);
 
+        return beerQueryMetrics.time(showInventoryOnHand ? "findAllByIdWithInventory" : "findAllById", beers.map(found -> beerIds.stream()
+                .map(beerId -> BeerLookupResult.ofId(beerId, found.get(beerId)))
+                .collect(Collectors.toList())));
     }
 
     @Override
     public Mono<BeerDto> saveNewBeer(BeerDto beerDto) {
-        return beerRepository.save(beerMapper.beerDtoToBeer(beerDto)).map(beerMapper::beerToBeerDto);
+        return beerQueryMetrics.time("saveNewBeer", beerRepository.save(newBeer(beerDto))
+                .doOnSuccess(savedBeer -> beerCountCache.invalidateAll())
+                .map(beerMapper::beerToBeerDto)
+                .doOnNext(beerLookupCache::put));
         // beerMapper.beerToBeerDto(beerRepository.save(beerMapper.beerDtoToBeer(beerDto)));
     }
 
     @Override
     public Mono<BeerDto> saveNewBeerMono(Mono<BeerDto> beerDto) {
-        return beerDto.map(beerMapper::beerDtoToBeer)
+        return beerQueryMetrics.time("saveNewBeer", beerDto.map(this::newBeer)
                 .flatMap(beerRepository::save)
-                .map(beerMapper::beerToBeerDto);
+                .doOnSuccess(savedBeer -> beerCountCache.invalidateAll())
+                .map(beerMapper::beerToBeerDto)
+                .doOnNext(beerLookupCache::put));
     }
 
+    /**
+     * Save treats a beer without a version as new and starts it at 0, whatever version the client sent.
+     */
+    private Beer newBeer(BeerDto beerDto) {
+        Beer beer = beerMapper.beerDtoToBeer(beerDto);
+        beer.setVersion(null);
+        return beer;
+    }
+
+    /**
+     * Inserts every valid beer in batches of {@code batchSize} inside one transaction. Invalid items, and items
+     * whose UPC is already taken, are reported instead of inserted; a database error rolls back the whole request.
+     * Results are only emitted once the transaction has committed.
+     */
     @Override
-    public Mono<BeerDto> updateBeer(Integer beerId, BeerDto beerDto) {
-//        Beer beer = beerRepository.findById(beerId).orElseThrow(NotFoundException::new);
-//
-//        beer.setBeerName(beerDto.getBeerName());
-//        beer.setBeerStyle(BeerStyleEnum.valueOf(beerDto.getBeerStyle()));
-//        beer.setPrice(beerDto.getPrice());
-//        beer.setUpc(beerDto.getUpc());
+    public Flux<BeerBatchResult> saveNewBeers(Flux<BeerDto> beerDtos) {
+        return beerQueryMetrics.time("saveNewBeers", Flux.defer(() -> {
+            Set<String> requestUpcs = new HashSet<>();
 
-        //return beerMapper.beerToBeerDto(beerRepository.save(beer));
-        return beerRepository.findById(beerId)
-                .defaultIfEmpty(Beer.builder().build())
-                .map(beer -> {
-                    beer.setBeerName(beerDto.getBeerName());
-                    beer.setBeerStyle(BeerStyleEnum.valueOf(beerDto.getBeerStyle()));
-                    beer.setPrice(beerDto.getPrice());
-                    beer.setUpc(beerDto.getUpc());
-                    return beer;
-                }).flatMap(updateBeer -> {
-                    if (updateBeer.getId() != null) {
-                        return beerRepository.save(updateBeer);
+            return beerDtos.index()
+                    .buffer(beerBatchProperties.getBatchSize())
+                    .concatMap(batch -> saveBatch(batch, requestUpcs))
+                    .as(transactionalOperator::transactional)
+                    .collectList()
+                    .doOnSuccess(results -> beerCountCache.invalidateAll())
+                    .flatMapIterable(Function.identity());
+        }));
+    }
+
+    private Flux<BeerBatchResult> saveBatch(List<Tuple2<Long, BeerDto>> batch, Set<String> requestUpcs) {
+        Map<Long, List<String>> errors = new HashMap<>();
+        List<String> upcs = new ArrayList<>();
+
+        for (Tuple2<Long, BeerDto> item : batch) {
+            List<String> itemErrors = validateNewBeer(item.getT2());
+            String upc = item.getT2().getUpc();
+
+            if (itemErrors.isEmpty() && upc != null && !requestUpcs.add(upc)) {
+                itemErrors.add("upc : duplicated in request");
+            }
+
+            if (itemErrors.isEmpty()) {
+                if (upc != null) {
+                    upcs.add(upc);
+                }
+            } else {
+                errors.put(item.getT1(), itemErrors);
+            }
+        }
+
+        Mono<Set<String>> existingUpcs = upcs.isEmpty()
+                ? Mono.just(Collections.emptySet())
+                : beerRepository.findUpcsIn(upcs).collect(Collectors.toSet());
+
+        return existingUpcs.flatMapMany(existing -> {
+            List<Beer> beers = new ArrayList<>();
+            LocalDateTime now = LocalDateTime.now();
+
+            for (Tuple2<Long, BeerDto> item : batch) {
+                if (errors.containsKey(item.getT1())) {
+                    continue;
+                }
+                if (existing.contains(item.getT2().getUpc())) {
+                    errors.put(item.getT1(), Collections.singletonList("upc : already exists"));
+                    continue;
+                }
+                Beer beer = newBeer(item.getT2());
+                beer.setCreatedDate(now);
+                beer.setLastModifiedDate(now);
+                beers.add(beer);
+            }
+
+            return beerRepository.insertAll(beers)
+                    .collectList()
+                    .flatMapIterable(ids -> {
+                        Iterator<Integer> newIds = ids.iterator();
+                        List<BeerBatchResult> results = new ArrayList<>(batch.size());
+
+                        for (Tuple2<Long, BeerDto> item : batch) {
+                            List<String> itemErrors = errors.get(item.getT1());
+                            results.add(BeerBatchResult.builder()
+                                    .index(item.getT1())
+                                    .id(itemErrors == null ? newIds.next() : null)
+                                    .errors(itemErrors)
+                                    .build());
+                        }
+                        return results;
+                    });
+        });
+    }
+
+    /**
+     * Upserts beers keyed on upc. Each batch reads the current rows for its UPCs in one query, then inserts the new
+     * beers and updates the changed ones, so unchanged rows keep their version and last modified date. Name, style
+     * and price are synced (the fields a PUT updates); inventory is only taken from the feed for new beers. An update
+     * only applies if the row is still at the version read, so a beer changed in between is rejected, not overwritten.
+     */
+    @Override
+    public Mono<BeerSyncResult> syncBeers(Flux<BeerDto> beerDtos) {
+        return beerQueryMetrics.time("syncBeers", Mono.defer(() -> {
+            Set<String> requestUpcs = new HashSet<>();
+            List<Integer> updatedIds = new ArrayList<>();
+            BeerSyncResult result = new BeerSyncResult();
+
+            return beerDtos.index()
+                    .buffer(beerBatchProperties.getBatchSize())
+                    .concatMap(batch -> syncBatch(batch, requestUpcs, updatedIds, result))
+                    .as(transactionalOperator::transactional)
+                    .then(Mono.fromSupplier(() -> {
+                        // an update can move a beer between name and style filters, not just an insert
+                        if (result.getInserted() + result.getUpdated() > 0) {
+                            beerCountCache.invalidateAll();
+                        }
+                        updatedIds.forEach(beerLookupCache::evict);
+                        updatedIds.forEach(beerJsonCache::evict);
+                        return result;
+                    }));
+        }));
+    }
+
+    private Mono<Integer> syncBatch(List<Tuple2<Long, BeerDto>> batch, Set<String> requestUpcs,
+                                    List<Integer> updatedIds, BeerSyncResult result) {
+        Map<String, Tuple2<Long, BeerDto>> itemsByUpc = new LinkedHashMap<>();
+
+        for (Tuple2<Long, BeerDto> item : batch) {
+            List<String> itemErrors = validateNewBeer(item.getT2());
+            String upc = item.getT2().getUpc();
+
+            if (!StringUtils.hasText(upc)) {
+                itemErrors.add("upc : must not be blank");
+            } else if (itemErrors.isEmpty() && !requestUpcs.add(upc)) {
+                itemErrors.add("upc : duplicated in request");
+            }
+
+            if (itemErrors.isEmpty()) {
+                itemsByUpc.put(upc, item);
+            } else {
+                result.getRejected().add(BeerBatchResult.builder().index(item.getT1()).errors(itemErrors).build());
+            }
+        }
+
+        if (itemsByUpc.isEmpty()) {
+            return Mono.empty();
+        }
+
+        return beerRepository.findAllByUpcIn(itemsByUpc.keySet())
+                .collectMap(Beer::getUpc)
+                .flatMap(existing -> {
+                    List<Beer> inserts = new ArrayList<>();
+                    List<Beer> updates = new ArrayList<>();
+                    List<Long> updateIndexes = new ArrayList<>();
+                    LocalDateTime now = LocalDateTime.now();
+
+                    for (Tuple2<Long, BeerDto> item : itemsByUpc.values()) {
+                        BeerDto beerDto = item.getT2();
+                        Beer current = existing.get(beerDto.getUpc());
+
+                        if (current == null) {
+                            Beer beer = beerMapper.beerDtoToBeer(beerDto);
+                            beer.setVersion(0L);
+                            beer.setCreatedDate(now);
+                            beer.setLastModifiedDate(now);
+                            inserts.add(beer);
+                        } else if (sameSyncedFields(current, beerDto)) {
+                            result.setUnchanged(result.getUnchanged() + 1);
+                        } else {
+                            // the version stays as read, the update checks and bumps it
+                            current.setBeerName(beerDto.getBeerName());
+                            current.setBeerStyle(BeerStyleEnum.valueOf(beerDto.getBeerStyle()));
+                            current.setPrice(beerDto.getPrice());
+                            current.setLastModifiedDate(now);
+                            updates.add(current);
+                            updateIndexes.add(item.getT1());
+                        }
+                    }
+
+                    Mono<Long> inserted = beerRepository.insertAll(inserts).count()
+                            .doOnNext(count -> result.setInserted(result.getInserted() + count));
+
+                    Mono<Long> updated = beerRepository.updateSyncedColumns(updates).index()
+                            .doOnNext(rows -> {
+                                int i = rows.getT1().intValue();
+                                if (rows.getT2() > 0) {
+                                    updatedIds.add(updates.get(i).getId());
+                                    result.setUpdated(result.getUpdated() + 1);
+                                } else {
+                                    result.getRejected().add(BeerBatchResult.builder()
+                                            .index(updateIndexes.get(i))
+                                            .errors(List.of("version : changed since it was read, sync the item again"))
+                                            .build());
+                                }
+                            })
+                            .count();
+
+                    return inserted.then(updated).map(Long::intValue);
+                });
+    }
+
+    private boolean sameSyncedFields(Beer beer, BeerDto beerDto) {
+        boolean samePrice = beer.getPrice() == null || beerDto.getPrice() == null
+                ? beer.getPrice() == beerDto.getPrice()
+                : beer.getPrice().compareTo(beerDto.getPrice()) == 0;
+
+        return samePrice
+                && Objects.equals(beer.getBeerName(), beerDto.getBeerName())
+                && beer.getBeerStyle() == BeerStyleEnum.valueOf(beerDto.getBeerStyle());
+    }
+
+    private List<String> validateNewBeer(BeerDto beerDto) {
+        List<String> messages = new ArrayList<>();
+
+        Errors errors = new BeanPropertyBindingResult(beerDto, "beerDto");
+        validator.validate(beerDto, errors);
+        errors.getFieldErrors().forEach(fieldError ->
+                messages.add(fieldError.getField() + " : " + fieldError.getDefaultMessage()));
+
+        if (StringUtils.hasText(beerDto.getBeerStyle())) {
+            try {
+                BeerStyleEnum.valueOf(beerDto.getBeerStyle());
+            } catch (IllegalArgumentException e) {
+                messages.add("beerStyle : unknown style " + beerDto.getBeerStyle());
+            }
+        }
+
+        return messages;
+    }
+
+    /**
+     * One conditional UPDATE, with no read on the way in. The row is only read when nothing was updated, to
+     * tell a missing beer from one changed since {@code beerDto.version} or one that already matches.
+     */
+    @Override
+    public Mono<Void> updateBeer(Integer beerId, BeerDto beerDto) {
+        return beerQueryMetrics.time("updateBeer", Mono.fromSupplier(() -> Beer.builder()
+                        .id(beerId)
+                        .beerName(beerDto.getBeerName())
+                        .beerStyle(beerStyle(beerDto.getBeerStyle()))
+                        .upc(beerDto.getUpc())
+                        .price(beerDto.getPrice())
+                        .lastModifiedDate(LocalDateTime.now())
+                        .build())
+                .flatMap(beer -> beerRepository.updateIfChanged(beer, beerDto.getVersion()))
+                .flatMap(updated -> {
+                    if (updated > 0) {
+                        evict(beerId);
+                        return Mono.empty();
+                    }
+                    return explainNoUpdate(beerId, beerDto.getVersion());
+                })
+                .then());
+    }
+
+    /**
+     * Sets only the fields present in the patch, plus the next version, with one UPDATE matched on id and version.
+     */
+    @Override
+    public Mono<Void> patchBeer(Integer beerId, BeerPatchDto patch) {
+        return beerQueryMetrics.time("patchBeer", Mono.fromSupplier(() -> patchUpdate(patch))
+                .flatMap(update -> r2dbcEntityTemplate.update(Beer.class)
+                        .matching(query(where("id").is(beerId).and("version").is(patch.getVersion())))
+                        .apply(update))
+                .flatMap(updated -> {
+                    if (updated > 0) {
+                        evict(beerId);
+                        return Mono.empty();
                     }
-                    return Mono.just(updateBeer);
-                }).
-                map(beerMapper::beerToBeerDto);
+                    return explainNoUpdate(beerId, patch.getVersion());
+                })
+                .then());
+    }
+
+    /**
+     * The style named in a PUT or PATCH body, or a 400 if there is no such style.
+     */
+    private static BeerStyleEnum beerStyle(String beerStyle) {
+        try {
+            return BeerStyleEnum.valueOf(beerStyle);
+        } catch (IllegalArgumentException e) {
+            throw new ServerWebInputException("beerStyle : unknown style " + beerStyle);
+        }
+    }
+
+    private Update patchUpdate(BeerPatchDto patch) {
+        Map<String, Object> fields = new LinkedHashMap<>();
 
+        if (patch.getBeerName() != null) {
+            fields.put("beerName", patch.getBeerName());
+        }
+        if (patch.getBeerStyle() != null) {
+            fields.put("beerStyle", beerStyle(patch.getBeerStyle()));
+        }
+        if (patch.getUpc() != null) {
+            fields.put("upc", patch.getUpc());
+        }
+        if (patch.getPrice() != null) {
+            fields.put("price", patch.getPrice());
+        }
+        if (patch.getQuantityOnHand() != null) {
+            fields.put("quantityOnHand", patch.getQuantityOnHand());
+        }
+        if (fields.isEmpty()) {
+            throw new ServerWebInputException("Nothing to update");
+        }
+
+        Update update = Update.update("version", patch.getVersion() + 1)
+                .set("lastModifiedDate", LocalDateTime.now());
+        for (Map.Entry<String, Object> field : fields.entrySet()) {
+            update = update.set(field.getKey(), field.getValue());
+        }
+        return update;
+    }
+
+    /**
+     * Reads the beer after a conditional update matched no row: missing, changed since {@code expectedVersion},
+     * or (completing empty) already as requested.
+     */
+    private Mono<Void> explainNoUpdate(Integer beerId, Long expectedVersion) {
+        return beerRepository.findById(beerId)
+                .switchIfEmpty(Mono.error(new NotFoundException()))
+                .flatMap(current -> expectedVersion != null && !expectedVersion.equals(current.getVersion())
+                        ? Mono.error(new OptimisticLockingFailureException("Beer " + beerId +
+                                " is at version " + current.getVersion() + ", not " + expectedVersion))
+                        : Mono.empty());
     }
 
-    @Cacheable(cacheNames = "beerUpcCache")
     @Override
     public Mono<BeerDto> getByUpc(String upc) {
-        return beerRepository.findByUpc(upc).map(beerMapper::beerToBeerDto);
+        return beerQueryMetrics.time("findByUpc", beerLookupCoalescer.getByUpc(upc, () -> beerLookupCache.getByUpc(upc,
+                key -> beerRepository.findByUpc(key).map(beerMapper::beerToBeerDto),
+                this::loadById)));
     }
 
     @Override
-    public void deleteBeerById(Integer beerId) {
-        beerRepository.deleteById(beerId).subscribe();
+    public Mono<List<BeerLookupResult>> getByUpcs(List<String> upcs) {
+        if (upcs.size() > beerBatchProperties.getMaxIds()) {
+            return Mono.error(tooMany("upcs"));
+        }
+        return beerQueryMetrics.time("findAllByUpc", beerLookupCache.getAllByUpc(upcs, this::loadAllByUpc, this::loadAllById)
+                .map(found -> upcs.stream()
+                        .map(upc -> BeerLookupResult.ofUpc(upc, found.get(upc)))
+                        .collect(Collectors.toList())));
+    }
+
+    private Mono<BeerDto> loadById(Integer beerId) {
+        return beerIdBatchLoader.load(beerId).map(beerMapper::beerToBeerDto);
+    }
+
+    private Mono<Map<Integer, BeerDto>> loadAllById(Collection<Integer> beerIds) {
+        return beerRepository.findAllById(beerIds).map(beerMapper::beerToBeerDto).collectMap(BeerDto::getId);
     }
 
+    private Mono<Map<String, BeerDto>> loadAllByUpc(Collection<String> upcs) {
+        return beerRepository.findAllByUpcIn(upcs).map(beerMapper::beerToBeerDto).collectMap(BeerDto::getUpc);
+    }
+
+    /**
+     * A single DELETE; its row count tells whether the beer existed.
+     */
     @Override
     public Mono<Void> reactiveDeleteById(Integer beerId) {
-       // return beerRepository.deleteById(beerId);
+        return beerQueryMetrics.time("deleteById", r2dbcEntityTemplate.delete(Beer.class)
+                .matching(query(where("id").is(beerId)))
+                .all()
+                .flatMap(deleted -> {
+                    if (deleted == 0) {
+                        return Mono.error(new NotFoundException());
+                    }
+                    evict(beerId);
+                    return Mono.<Void>empty();
+                }));
+    }
 
-        return beerRepository.findById(beerId)
-                .switchIfEmpty(Mono.error(new NotFoundException()))
-                .map(beer->{
-                    return beer.getId();
-                }).flatMap(beerRepository::deleteById);
+    /**
+     * Deletes in IN lists of up to {@code batchSize} ids, in one transaction.
+     */
+    @Override
+    public Mono<BeerDeleteResult> deleteByIds(List<Integer> beerIds) {
+        if (beerIds.size() > beerBatchProperties.getMaxIds()) {
+            return Mono.error(tooMany("ids"));
+        }
+        Set<Integer> distinctIds = new LinkedHashSet<>(beerIds);
+
+        return beerQueryMetrics.time("deleteAllById", Flux.fromIterable(distinctIds)
+                .buffer(beerBatchProperties.getBatchSize())
+                .concatMap(batch -> r2dbcEntityTemplate.delete(Beer.class)
+                        .matching(query(where("id").in(batch)))
+                        .all())
+                .reduce(0, Integer::sum)
+                .as(transactionalOperator::transactional)
+                .map(deleted -> {
+                    if (deleted > 0) {
+                        beerCountCache.invalidateAll();
+                        distinctIds.forEach(beerLookupCache::evict);
+                        distinctIds.forEach(beerJsonCache::evict);
+                    }
+                    return BeerDeleteResult.builder().requested(distinctIds.size()).deleted(deleted).build();
+                }));
+    }
+
+    private ServerWebInputException tooMany(String parameter) {
+        return new ServerWebInputException(parameter + " : at most " + beerBatchProperties.getMaxIds() + " per request");
+    }
 
+    private void evict(Integer beerId) {
+        beerCountCache.invalidateAll();
+        beerLookupCache.evict(beerId);
+        beerJsonCache.evict(beerId);
     }
 }
@@ -1,41 +1,117 @@
 package guru.springframework.sfgrestbrewery.services;
 
 import guru.springframework.sfgrestbrewery.bootstrap.BeerLoader;
+import guru.springframework.sfgrestbrewery.config.BeerBatchProperties;
+import guru.springframework.sfgrestbrewery.config.BeerGeneratorProperties;
+import guru.springframework.sfgrestbrewery.config.BeerResetProperties;
 import guru.springframework.sfgrestbrewery.repositories.BeerRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
-import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.IntervalTask;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Created by jt on 3/13/21.
+ *
+ * Puts the catalog back to the initial beers: one DELETE, an identity restart and a batched reseed in a single
+ * transaction, without blocking the scheduler thread. Each reset is timed as {@code beer.reset}.
  */
 @Slf4j
-//@Service
+@Service
 @RequiredArgsConstructor
-public class ResetService {
+public class ResetService implements SchedulingConfigurer {
 
     private final BeerRepository beerRepository;
     private final BeerLoader beerLoader;
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator transactionalOperator;
+    private final BeerResetProperties resetProperties;
+    private final BeerGeneratorProperties generatorProperties;
+    private final BeerBatchProperties beerBatchProperties;
+    private final BeerCountCache beerCountCache;
+    private final BeerLookupCache beerLookupCache;
+    private final BeerJsonCache beerJsonCache;
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicBoolean resetting = new AtomicBoolean();
 
-    @Scheduled(fixedRate = 15000)
-    @Transactional
-    public void checkBeerCount(){
-        if (beerRepository.count().block() > 100){
-            resetBeers();
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar taskRegistrar) {
+        if (!resetProperties.isEnabled()) {
+            return;
+        }
+        if (generatorProperties.isEnabled()) {
+            // a generated catalog is always over max-beers and would be wiped on the first check
+            log.info("Scheduled beer resets are off while the catalog generator is enabled");
+            return;
         }
+
+        long checkInterval = resetProperties.getCheckInterval().toMillis();
+        long resetInterval = resetProperties.getResetInterval().toMillis();
+
+        taskRegistrar.addFixedRateTask(new IntervalTask(() -> subscribe(checkBeerCount()), checkInterval, checkInterval));
+        taskRegistrar.addFixedRateTask(new IntervalTask(() -> subscribe(resetBeers()), resetInterval, resetInterval));
     }
 
-    @Scheduled(fixedRate = 3600000, initialDelay = 2000)
-    @SneakyThrows
-    @Transactional
-    public void resetBeers(){
-        log.info("Resetting Beer Data");
-//        beerRepository.deleteAllInBatch();
-//        beerRepository.flush();
-        beerLoader.run();
+    public Mono<Long> checkBeerCount(){
+        return beerRepository.count()
+                .filter(count -> count > resetProperties.getMaxBeers())
+                .flatMap(count -> resetBeers());
     }
 
+    /**
+     * Emits the number of beers reseeded, or nothing if a reset is already running.
+     */
+    public Mono<Long> resetBeers(){
+        return Mono.defer(() -> {
+            if (!resetting.compareAndSet(false, true)) {
+                return Mono.empty();
+            }
+
+            log.info("Resetting Beer Data");
+            long start = System.nanoTime();
+
+            // TRUNCATE ... RESTART IDENTITY would commit the open transaction in H2, so a failed reseed would
+            // leave the catalog empty. ALTER COLUMN ... RESTART stays inside it, and the beers get ids from 1 again
+            return databaseClient.sql("DELETE FROM beer")
+                    .fetch()
+                    .rowsUpdated()
+                    .then(databaseClient.sql("ALTER TABLE beer ALTER COLUMN id RESTART WITH 1").then())
+                    .thenMany(Flux.fromIterable(beerLoader.initialBeers())
+                            .buffer(beerBatchProperties.getBatchSize())
+                            .concatMap(beerRepository::insertAll))
+                    .count()
+                    .as(transactionalOperator::transactional)
+                    .doOnSuccess(seeded -> {
+                        // ids are reused from 1, so nothing cached about the old rows is valid
+                        beerCountCache.invalidateAll();
+                        beerLookupCache.invalidateAll();
+                        beerJsonCache.invalidateAll();
+
+                        long elapsed = System.nanoTime() - start;
+                        Timer.builder("beer.reset")
+                                .description("Time taken to reset the beer catalog")
+                                .register(meterRegistry)
+                                .record(elapsed, TimeUnit.NANOSECONDS);
+                        log.info("Beer Data reset to {} beers in {} ms", seeded, Duration.ofNanos(elapsed).toMillis());
+                    })
+                    .doFinally(signal -> resetting.set(false));
+        });
+    }
+
+    private void subscribe(Mono<Long> reset) {
+        reset.subscribe(null, error -> log.error("Beer reset failed", error));
+    }
 }
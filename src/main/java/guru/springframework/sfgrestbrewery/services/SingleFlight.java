@@ -0,0 +1,68 @@
+package guru.springframework.sfgrestbrewery.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Lets concurrent callers asking for the same key share one in-flight load. A key is only held while its
+ * load runs, so nothing is cached: the next call after completion loads again.
+ */
+class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter loaded;
+    private final Counter coalesced;
+
+    SingleFlight(String lookup, MeterRegistry meterRegistry) {
+        this.loaded = Counter.builder("beer.lookup.requests")
+                .description("Beer lookups, by whether they joined a load already in flight")
+                .tags("lookup", lookup, "coalesced", "false")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("beer.lookup.requests")
+                .description("Beer lookups, by whether they joined a load already in flight")
+                .tags("lookup", lookup, "coalesced", "true")
+                .register(meterRegistry);
+    }
+
+    Mono<V> execute(K key, Supplier<Mono<V>> loader) {
+        return Mono.defer(() -> {
+            CompletableFuture<V> future = new CompletableFuture<>();
+            CompletableFuture<V> existing = inFlight.putIfAbsent(key, future);
+
+            if (existing != null) {
+                coalesced.increment();
+                return fromFuture(existing);
+            }
+
+            loaded.increment();
+            // the key is released before completing, so callers arriving afterwards start a fresh load. Deferred,
+            // so a loader that throws instead of returning an error fails the load rather than holding the key
+            Mono.defer(loader).subscribe(
+                    value -> {
+                        inFlight.remove(key, future);
+                        future.complete(value);
+                    },
+                    error -> {
+                        inFlight.remove(key, future);
+                        future.completeExceptionally(error);
+                    },
+                    () -> {
+                        inFlight.remove(key, future);
+                        future.complete(null);
+                    });
+
+            return fromFuture(future);
+        });
+    }
+
+    private static <V> Mono<V> fromFuture(CompletableFuture<V> future) {
+        // as in BeerLookupCache, a cancelled caller must not cancel the load shared with others
+        return Mono.fromFuture(future.copy());
+    }
+}
@@ -0,0 +1,438 @@
+package guru.springframework.sfgrestbrewery.web.codec;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import guru.springframework.sfgrestbrewery.web.model.BeerDto;
+import guru.springframework.sfgrestbrewery.web.model.BeerField;
+import guru.springframework.sfgrestbrewery.web.model.BeerPagedList;
+import guru.springframework.sfgrestbrewery.web.model.SparseBeerDto;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hand-written streaming serializers and deserializers for {@link BeerDto} and {@link BeerPagedList}. Fields are
+ * read and written token by token, without bean introspection or intermediate {@code JsonNode} trees.
+ *
+ * A beer is written exactly as the default mapper writes it, or with just the requested fields for a
+ * {@link SparseBeerDto}. A page is written with the same top-level fields as {@code PageImpl}, but without
+ * its {@code pageable} and {@code sort} trees. Reading accepts either page shape and
+ * skips unknown fields; a value of the wrong shape or a scalar that doesn't parse fails as it would with the
+ * default mapper.
+ */
+public class BeerJsonModule extends SimpleModule {
+
+    // yyyy-MM-ddTHH:mm:ss.nnnnnnnnn
+    private static final int MAX_DATE_TIME_LENGTH = 29;
+
+    public BeerJsonModule() {
+        super("BeerJsonModule");
+        BeerDtoDeserializer beerDtoDeserializer = new BeerDtoDeserializer();
+
+        addSerializer(BeerDto.class, new BeerDtoSerializer());
+        addDeserializer(BeerDto.class, beerDtoDeserializer);
+        addSerializer(BeerPagedList.class, new BeerPagedListSerializer());
+        addDeserializer(BeerPagedList.class, new BeerPagedListDeserializer(beerDtoDeserializer));
+    }
+
+    static class BeerDtoSerializer extends StdSerializer<BeerDto> {
+
+        BeerDtoSerializer() {
+            super(BeerDto.class);
+        }
+
+        @Override
+        public void serialize(BeerDto beer, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject();
+            if (beer instanceof SparseBeerDto) {
+                for (BeerField field : ((SparseBeerDto) beer).getFields()) {
+                    writeField(gen, beer, field);
+                }
+            } else {
+                writeNumber(gen, "id", beer.getId());
+                writeNumber(gen, "version", beer.getVersion());
+                gen.writeStringField("beerName", beer.getBeerName());
+                gen.writeStringField("beerStyle", beer.getBeerStyle());
+                gen.writeStringField("upc", beer.getUpc());
+                writeDecimal(gen, "price", beer.getPrice());
+                writeNumber(gen, "quantityOnHand", beer.getQuantityOnHand());
+                writeDateTime(gen, "createdDate", beer.getCreatedDate());
+                writeDateTime(gen, "lastUpdatedDate", beer.getLastUpdatedDate());
+            }
+            gen.writeEndObject();
+        }
+
+        private static void writeField(JsonGenerator gen, BeerDto beer, BeerField field) throws IOException {
+            switch (field) {
+                case ID:
+                    writeNumber(gen, "id", beer.getId());
+                    break;
+                case VERSION:
+                    writeNumber(gen, "version", beer.getVersion());
+                    break;
+                case BEER_NAME:
+                    gen.writeStringField("beerName", beer.getBeerName());
+                    break;
+                case BEER_STYLE:
+                    gen.writeStringField("beerStyle", beer.getBeerStyle());
+                    break;
+                case UPC:
+                    gen.writeStringField("upc", beer.getUpc());
+                    break;
+                case PRICE:
+                    writeDecimal(gen, "price", beer.getPrice());
+                    break;
+                case QUANTITY_ON_HAND:
+                    writeNumber(gen, "quantityOnHand", beer.getQuantityOnHand());
+                    break;
+                case CREATED_DATE:
+                    writeDateTime(gen, "createdDate", beer.getCreatedDate());
+                    break;
+                case LAST_UPDATED_DATE:
+                    writeDateTime(gen, "lastUpdatedDate", beer.getLastUpdatedDate());
+                    break;
+            }
+        }
+
+        private static void writeNumber(JsonGenerator gen, String name, Number value) throws IOException {
+            gen.writeFieldName(name);
+            if (value == null) {
+                gen.writeNull();
+            } else {
+                gen.writeNumber(value.longValue());
+            }
+        }
+
+        private static void writeDecimal(JsonGenerator gen, String name, BigDecimal value) throws IOException {
+            gen.writeFieldName(name);
+            if (value == null) {
+                gen.writeNull();
+            } else {
+                gen.writeNumber(value);
+            }
+        }
+
+        private static void writeDateTime(JsonGenerator gen, String name, LocalDateTime value) throws IOException {
+            gen.writeFieldName(name);
+            if (value == null) {
+                gen.writeNull();
+                return;
+            }
+            char[] text = new char[MAX_DATE_TIME_LENGTH];
+            int length = formatDateTime(value, text);
+            if (length < 0) {
+                gen.writeString(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(value));
+            } else {
+                gen.writeString(text, 0, length);
+            }
+        }
+    }
+
+    static class BeerDtoDeserializer extends StdDeserializer<BeerDto> {
+
+        BeerDtoDeserializer() {
+            super(BeerDto.class);
+        }
+
+        @Override
+        public BeerDto deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            if (!p.isExpectedStartObjectToken()) {
+                return (BeerDto) ctxt.handleUnexpectedToken(BeerDto.class, p);
+            }
+
+            BeerDto beer = new BeerDto();
+            for (String name = p.nextFieldName(); name != null; name = p.nextFieldName()) {
+                JsonToken token = p.nextToken();
+                if (token == JsonToken.VALUE_NULL) {
+                    continue;
+                }
+                switch (name) {
+                    case "id":
+                        beer.setId(readInt(p, ctxt, Integer.class));
+                        break;
+                    case "version":
+                        beer.setVersion(readLong(p, ctxt, Long.class));
+                        break;
+                    case "beerName":
+                        beer.setBeerName(readString(p, ctxt));
+                        break;
+                    case "beerStyle":
+                        beer.setBeerStyle(readString(p, ctxt));
+                        break;
+                    case "upc":
+                        beer.setUpc(readString(p, ctxt));
+                        break;
+                    case "price":
+                        beer.setPrice(readDecimal(p, ctxt));
+                        break;
+                    case "quantityOnHand":
+                        beer.setQuantityOnHand(readInt(p, ctxt, Integer.class));
+                        break;
+                    case "createdDate":
+                        beer.setCreatedDate(readDateTime(p, ctxt));
+                        break;
+                    case "lastUpdatedDate":
+                        beer.setLastUpdatedDate(readDateTime(p, ctxt));
+                        break;
+                    default:
+                        p.skipChildren();
+                }
+            }
+            return beer;
+        }
+
+        private static String readString(JsonParser p, DeserializationContext ctxt) throws IOException {
+            if (p.currentToken() == JsonToken.VALUE_STRING) {
+                return p.getText();
+            }
+            expectScalar(p, ctxt, String.class);
+            return ctxt.readValue(p, String.class);
+        }
+
+        private static BigDecimal readDecimal(JsonParser p, DeserializationContext ctxt) throws IOException {
+            if (p.currentToken().isNumeric()) {
+                return p.getDecimalValue();
+            }
+            expectScalar(p, ctxt, BigDecimal.class);
+            return ctxt.readValue(p, BigDecimal.class);
+        }
+
+        private static LocalDateTime readDateTime(JsonParser p, DeserializationContext ctxt) throws IOException {
+            if (p.currentToken() == JsonToken.VALUE_STRING) {
+                try {
+                    LocalDateTime parsed = parseDateTime(p.getTextCharacters(), p.getTextOffset(), p.getTextLength());
+                    if (parsed != null) {
+                        return parsed;
+                    }
+                } catch (DateTimeException e) {
+                    // out of range, reported below the way the default mapper reports it
+                }
+            } else if (p.currentToken() == JsonToken.START_OBJECT) {
+                return (LocalDateTime) ctxt.handleUnexpectedToken(LocalDateTime.class, p);
+            }
+            // other formats, bad text, and timestamp arrays from a mapper with WRITE_DATES_AS_TIMESTAMPS on
+            return ctxt.readValue(p, LocalDateTime.class);
+        }
+    }
+
+    static class BeerPagedListSerializer extends StdSerializer<BeerPagedList> {
+
+        private final BeerDtoSerializer beerDtoSerializer = new BeerDtoSerializer();
+
+        BeerPagedListSerializer() {
+            super(BeerPagedList.class);
+        }
+
+        @Override
+        public void serialize(BeerPagedList page, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject();
+            gen.writeArrayFieldStart("content");
+            for (BeerDto beer : page.getContent()) {
+                beerDtoSerializer.serialize(beer, gen, provider);
+            }
+            gen.writeEndArray();
+            gen.writeNumberField("number", page.getNumber());
+            gen.writeNumberField("size", page.getSize());
+            gen.writeNumberField("totalElements", page.getTotalElements());
+            gen.writeNumberField("totalPages", page.getTotalPages());
+            gen.writeBooleanField("first", page.isFirst());
+            gen.writeBooleanField("last", page.isLast());
+            gen.writeNumberField("numberOfElements", page.getNumberOfElements());
+            gen.writeBooleanField("empty", page.isEmpty());
+            gen.writeEndObject();
+        }
+    }
+
+    static class BeerPagedListDeserializer extends StdDeserializer<BeerPagedList> {
+
+        private final BeerDtoDeserializer beerDtoDeserializer;
+
+        BeerPagedListDeserializer(BeerDtoDeserializer beerDtoDeserializer) {
+            super(BeerPagedList.class);
+            this.beerDtoDeserializer = beerDtoDeserializer;
+        }
+
+        @Override
+        public BeerPagedList deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            if (!p.isExpectedStartObjectToken()) {
+                return (BeerPagedList) ctxt.handleUnexpectedToken(BeerPagedList.class, p);
+            }
+
+            List<BeerDto> content = new ArrayList<>();
+            int number = 0;
+            int size = 0;
+            long totalElements = 0;
+
+            for (String name = p.nextFieldName(); name != null; name = p.nextFieldName()) {
+                JsonToken token = p.nextToken();
+                if (token == JsonToken.VALUE_NULL) {
+                    continue;
+                }
+                switch (name) {
+                    case "content":
+                        if (token != JsonToken.START_ARRAY) {
+                            ctxt.handleUnexpectedToken(List.class, p);
+                            p.skipChildren();
+                            break;
+                        }
+                        while (p.nextToken() != JsonToken.END_ARRAY) {
+                            content.add(beerDtoDeserializer.deserialize(p, ctxt));
+                        }
+                        break;
+                    case "number":
+                        number = readInt(p, ctxt, int.class);
+                        break;
+                    case "size":
+                        size = readInt(p, ctxt, int.class);
+                        break;
+                    case "totalElements":
+                        totalElements = readLong(p, ctxt, long.class);
+                        break;
+                    default:
+                        // the legacy pageable and sort trees, and the derived totalPages, first, last ...
+                        p.skipChildren();
+                }
+            }
+
+            Pageable pageable = size > 0 ? PageRequest.of(number, size) : Pageable.unpaged();
+            return new BeerPagedList(content, pageable, totalElements);
+        }
+    }
+
+    /**
+     * Anything but a plain number is left to Jackson's own {@code type} deserializer, so bad input fails (and
+     * "" becomes null or 0) exactly as with the default mapper, instead of being coerced to 0.
+     */
+    private static Integer readInt(JsonParser p, DeserializationContext ctxt, Class<Integer> type) throws IOException {
+        if (p.currentToken() == JsonToken.VALUE_NUMBER_INT) {
+            return p.getIntValue();
+        }
+        expectScalar(p, ctxt, type);
+        return ctxt.readValue(p, type);
+    }
+
+    private static Long readLong(JsonParser p, DeserializationContext ctxt, Class<Long> type) throws IOException {
+        if (p.currentToken() == JsonToken.VALUE_NUMBER_INT) {
+            return p.getLongValue();
+        }
+        expectScalar(p, ctxt, type);
+        return ctxt.readValue(p, type);
+    }
+
+    /**
+     * Fails on an object or array where a scalar belongs, rather than reading on from inside it.
+     */
+    private static void expectScalar(JsonParser p, DeserializationContext ctxt, Class<?> type) throws IOException {
+        if (p.currentToken().isStructStart()) {
+            ctxt.handleUnexpectedToken(type, p);
+        }
+    }
+
+    /**
+     * Writes {@code value} the way {@link DateTimeFormatter#ISO_LOCAL_DATE_TIME} does, returning the length, or -1
+     * for years outside 0000-9999 which are left to the formatter.
+     */
+    static int formatDateTime(LocalDateTime value, char[] text) {
+        int year = value.getYear();
+        if (year < 0 || year > 9999) {
+            return -1;
+        }
+        digits(text, 0, year, 4);
+        text[4] = '-';
+        digits(text, 5, value.getMonthValue(), 2);
+        text[7] = '-';
+        digits(text, 8, value.getDayOfMonth(), 2);
+        text[10] = 'T';
+        digits(text, 11, value.getHour(), 2);
+        text[13] = ':';
+        digits(text, 14, value.getMinute(), 2);
+        text[16] = ':';
+        digits(text, 17, value.getSecond(), 2);
+
+        int nano = value.getNano();
+        if (nano == 0) {
+            return 19;
+        }
+        text[19] = '.';
+        digits(text, 20, nano, 9);
+        int length = MAX_DATE_TIME_LENGTH;
+        while (text[length - 1] == '0') {
+            length--;
+        }
+        return length;
+    }
+
+    /**
+     * Parses {@code yyyy-MM-ddTHH:mm[:ss[.fraction]]}, or returns null for anything else so the caller can fall
+     * back to {@link DateTimeFormatter#ISO_LOCAL_DATE_TIME}.
+     */
+    static LocalDateTime parseDateTime(char[] text, int offset, int length) {
+        if (length < 16 || length > MAX_DATE_TIME_LENGTH
+                || text[offset + 4] != '-' || text[offset + 7] != '-' || text[offset + 10] != 'T' || text[offset + 13] != ':') {
+            return null;
+        }
+        int year = number(text, offset, 4);
+        int month = number(text, offset + 5, 2);
+        int day = number(text, offset + 8, 2);
+        int hour = number(text, offset + 11, 2);
+        int minute = number(text, offset + 14, 2);
+        int second = 0;
+        int nano = 0;
+
+        if (length > 16) {
+            if (length < 19 || text[offset + 16] != ':') {
+                return null;
+            }
+            second = number(text, offset + 17, 2);
+            if (length > 19) {
+                int fractionDigits = length - 20;
+                if (text[offset + 19] != '.' || fractionDigits == 0) {
+                    return null;
+                }
+                nano = number(text, offset + 20, fractionDigits);
+                for (int i = fractionDigits; i < 9 && nano >= 0; i++) {
+                    nano *= 10;
+                }
+            }
+        }
+
+        if ((year | month | day | hour | minute | second | nano) < 0) {
+            return null;
+        }
+        // out of range fields still throw, like the formatter
+        return LocalDateTime.of(year, month, day, hour, minute, second, nano);
+    }
+
+    private static void digits(char[] text, int offset, int value, int width) {
+        for (int i = offset + width - 1; i >= offset; i--) {
+            text[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    // -1 unless all width chars are digits
+    private static int number(char[] text, int offset, int width) {
+        int value = 0;
+        for (int i = offset; i < offset + width; i++) {
+            int digit = text[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,64 @@
+package guru.springframework.sfgrestbrewery.web.codec;
+
+import org.springframework.http.MediaType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Media types the beer endpoints can produce besides JSON, and the negotiation the handlers do themselves where
+ * they pick a representation before handing the body to a codec.
+ */
+public final class BeerMediaTypes {
+
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+    public static final MediaType APPLICATION_SMILE = MediaType.valueOf(APPLICATION_SMILE_VALUE);
+
+    /**
+     * Smile values back to back, as written and read by Spring's Smile codecs.
+     */
+    public static final String APPLICATION_STREAM_SMILE_VALUE = "application/stream+x-jackson-smile";
+    public static final MediaType APPLICATION_STREAM_SMILE = MediaType.valueOf(APPLICATION_STREAM_SMILE_VALUE);
+
+    /**
+     * CBOR data items back to back (RFC 8742).
+     */
+    public static final String APPLICATION_CBOR_SEQ_VALUE = "application/cbor-seq";
+    public static final MediaType APPLICATION_CBOR_SEQ = MediaType.valueOf(APPLICATION_CBOR_SEQ_VALUE);
+
+    /**
+     * Representations of a single beer or page, JSON first.
+     */
+    public static final List<MediaType> VALUES = List.of(
+            MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR, APPLICATION_SMILE);
+
+    /**
+     * Representations of a streamed export, NDJSON first.
+     */
+    public static final List<MediaType> STREAMS = List.of(
+            MediaType.APPLICATION_NDJSON, MediaType.TEXT_EVENT_STREAM, APPLICATION_STREAM_SMILE, APPLICATION_CBOR_SEQ);
+
+    private BeerMediaTypes() {
+    }
+
+    /**
+     * The first of {@code offered} the client accepts, going by quality and specificity. Falls back to the first
+     * offered type when there is no Accept header or nothing in it matches.
+     */
+    public static MediaType negotiate(List<MediaType> accept, List<MediaType> offered) {
+        List<MediaType> acceptable = new ArrayList<>(accept);
+        MediaType.sortBySpecificityAndQuality(acceptable);
+
+        for (MediaType accepted : acceptable) {
+            if (accepted.getQualityValue() == 0) {
+                continue;
+            }
+            for (MediaType candidate : offered) {
+                if (accepted.isCompatibleWith(candidate)) {
+                    return candidate;
+                }
+            }
+        }
+        return offered.get(0);
+    }
+}
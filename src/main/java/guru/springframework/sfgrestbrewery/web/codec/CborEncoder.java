@@ -0,0 +1,38 @@
+package guru.springframework.sfgrestbrewery.web.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.AbstractJackson2Encoder;
+import org.springframework.lang.Nullable;
+import org.springframework.util.MimeType;
+
+import java.util.List;
+
+/**
+ * CBOR encoder for single values ({@code application/cbor}) and streams ({@code application/cbor-seq}). Used
+ * instead of Spring's {@code Jackson2CborEncoder}, which fails from {@code encode} even for a single value.
+ * CBOR items are self-delimiting, so a stream is just the items written back to back.
+ */
+public class CborEncoder extends AbstractJackson2Encoder {
+
+    private static final byte[] NO_SEPARATOR = new byte[0];
+
+    public CborEncoder(ObjectMapper cborMapper) {
+        super(cborMapper, MediaType.APPLICATION_CBOR, BeerMediaTypes.APPLICATION_CBOR_SEQ);
+        setStreamingMediaTypes(List.of(BeerMediaTypes.APPLICATION_CBOR_SEQ));
+    }
+
+    /**
+     * Only when CBOR is asked for by name, never as the pick for an unset or wildcard content type.
+     */
+    @Override
+    public boolean canEncode(ResolvableType elementType, @Nullable MimeType mimeType) {
+        return mimeType != null && mimeType.isConcrete() && super.canEncode(elementType, mimeType);
+    }
+
+    @Override
+    protected byte[] getStreamingMediaTypeSeparator(MimeType mimeType) {
+        return BeerMediaTypes.APPLICATION_CBOR_SEQ.isCompatibleWith(mimeType) ? NO_SEPARATOR : null;
+    }
+}
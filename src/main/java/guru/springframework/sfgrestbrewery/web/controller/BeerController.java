@@ -1,24 +1,36 @@
 package guru.springframework.sfgrestbrewery.web.controller;
 
+import guru.springframework.sfgrestbrewery.services.BeerJsonCache;
 import guru.springframework.sfgrestbrewery.services.BeerService;
+import guru.springframework.sfgrestbrewery.web.codec.BeerMediaTypes;
+import guru.springframework.sfgrestbrewery.web.model.BeerBatchResult;
+import guru.springframework.sfgrestbrewery.web.model.BeerCursor;
+import guru.springframework.sfgrestbrewery.web.model.BeerCursorPage;
+import guru.springframework.sfgrestbrewery.web.model.BeerDeleteResult;
 import guru.springframework.sfgrestbrewery.web.model.BeerDto;
+import guru.springframework.sfgrestbrewery.web.model.BeerField;
+import guru.springframework.sfgrestbrewery.web.model.BeerLookupResult;
 import guru.springframework.sfgrestbrewery.web.model.BeerPagedList;
+import guru.springframework.sfgrestbrewery.web.model.BeerPatchDto;
+import guru.springframework.sfgrestbrewery.web.model.BeerSyncResult;
 import guru.springframework.sfgrestbrewery.web.model.v2.BeerStyleEnum;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import javax.management.monitor.MonitorNotification;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
-import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Created by jt on 2019-04-20.
@@ -33,13 +45,15 @@ public class BeerController {
     private static final Integer DEFAULT_PAGE_SIZE = 25;
 
     private final BeerService beerService;
+    private final BeerJsonCache beerJsonCache;
 
-    @GetMapping(produces = { "application/json" }, path = "beer")
+    @GetMapping(produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, BeerMediaTypes.APPLICATION_SMILE_VALUE }, path = "beer")
     public ResponseEntity<Mono<BeerPagedList>> listBeers(@RequestParam(value = "pageNumber", required = false) Integer pageNumber,
                                                    @RequestParam(value = "pageSize", required = false) Integer pageSize,
                                                    @RequestParam(value = "beerName", required = false) String beerName,
                                                    @RequestParam(value = "beerStyle", required = false) BeerStyleEnum beerStyle,
-                                                   @RequestParam(value = "showInventoryOnHand", required = false) Boolean showInventoryOnHand){
+                                                   @RequestParam(value = "showInventoryOnHand", required = false) Boolean showInventoryOnHand,
+                                                   @RequestParam(value = "fields", required = false) List<String> fields){
 
         if (showInventoryOnHand == null) {
             showInventoryOnHand = false;
@@ -57,7 +71,73 @@ public class BeerController {
 
       //  return  ResponseEntity.ok(Mono.just(beerList));
 
-        return ResponseEntity.ok(beerService.listBeers(beerName, beerStyle, PageRequest.of(pageNumber, pageSize),showInventoryOnHand));
+        return ResponseEntity.ok(beerService.listBeers(beerName, beerStyle, PageRequest.of(pageNumber, pageSize),showInventoryOnHand,
+                BeerField.fromProperties(fields)));
+    }
+
+    /**
+     * Keyset pagination - pass an empty {@code cursor} for the first page, then the {@code nextCursor} of each response.
+     */
+    @GetMapping(produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, BeerMediaTypes.APPLICATION_SMILE_VALUE }, path = "beer", params = "cursor")
+    public ResponseEntity<Mono<BeerCursorPage>> listBeersByCursor(@RequestParam(value = "cursor") String cursor,
+                                                                  @RequestParam(value = "pageSize", required = false) Integer pageSize,
+                                                                  @RequestParam(value = "sortBy", required = false) String sortBy,
+                                                                  @RequestParam(value = "beerName", required = false) String beerName,
+                                                                  @RequestParam(value = "beerStyle", required = false) BeerStyleEnum beerStyle,
+                                                                  @RequestParam(value = "showInventoryOnHand", required = false) Boolean showInventoryOnHand,
+                                                                  @RequestParam(value = "fields", required = false) List<String> fields){
+
+        if (showInventoryOnHand == null) {
+            showInventoryOnHand = false;
+        }
+
+        if (pageSize == null || pageSize < 1) {
+            pageSize = DEFAULT_PAGE_SIZE;
+        }
+
+        BeerCursor.SortKey sortKey = sortBy == null ? null : BeerCursor.SortKey.fromProperty(sortBy);
+
+        return ResponseEntity.ok(beerService.listBeersByCursor(beerName, beerStyle, sortKey, cursor, pageSize, showInventoryOnHand,
+                BeerField.fromProperties(fields)));
+    }
+
+    /**
+     * Multi-get - {@code ids=1,2,3}. One entry per requested id, in request order, with {@code found=false}
+     * for ids that don't exist.
+     */
+    @GetMapping(produces = { MediaType.APPLICATION_JSON_VALUE }, path = "beer", params = "ids")
+    public Mono<List<BeerLookupResult>> getBeersByIds(@RequestParam(value = "ids") List<Integer> ids,
+                                                      @RequestParam(value = "showInventoryOnHand", required = false) Boolean showInventoryOnHand){
+        if (showInventoryOnHand == null) {
+            showInventoryOnHand = false;
+        }
+
+        return beerService.getByIds(ids, showInventoryOnHand);
+    }
+
+    /**
+     * Multi-get by upc - {@code upcs=a,b,c}, answered like {@link #getBeersByIds}.
+     */
+    @GetMapping(produces = { MediaType.APPLICATION_JSON_VALUE }, path = "beerUpc", params = "upcs")
+    public Mono<List<BeerLookupResult>> getBeersByUpcs(@RequestParam(value = "upcs") List<String> upcs){
+        return beerService.getByUpcs(upcs);
+    }
+
+    /**
+     * Whole catalog (optionally filtered) as a stream of beers, one per line or one per event, or as back to back
+     * Smile or CBOR values.
+     */
+    @GetMapping(produces = { MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE,
+            BeerMediaTypes.APPLICATION_STREAM_SMILE_VALUE, BeerMediaTypes.APPLICATION_CBOR_SEQ_VALUE }, path = "beer/export")
+    public Flux<BeerDto> exportBeers(@RequestParam(value = "beerName", required = false) String beerName,
+                                     @RequestParam(value = "beerStyle", required = false) BeerStyleEnum beerStyle,
+                                     @RequestParam(value = "showInventoryOnHand", required = false) Boolean showInventoryOnHand){
+
+        if (showInventoryOnHand == null) {
+            showInventoryOnHand = false;
+        }
+
+        return beerService.exportBeers(beerName, beerStyle, showInventoryOnHand);
     }
 
     /*@GetMapping("beer/{beerId}")
@@ -75,23 +155,29 @@ public class BeerController {
         return ResponseEntity.notFound().build();
     }
 
-    @GetMapping("beer/{beerId}")
-    public ResponseEntity<Mono<BeerDto>> getBeerById(@PathVariable("beerId") Integer beerId,
-                                                    @RequestParam(value = "showInventoryOnHand", required = false) Boolean showInventoryOnHand){
-        if (showInventoryOnHand == null) {
-            showInventoryOnHand = false;
+    /**
+     * {@code fields=id,beerName,price} returns just those fields; sparse beers are not served from the JSON cache.
+     */
+    @GetMapping(produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, BeerMediaTypes.APPLICATION_SMILE_VALUE }, path = "beer/{beerId}")
+    public Mono<ResponseEntity<Object>> getBeerById(@PathVariable("beerId") Integer beerId,
+                                                    @RequestParam(value = "showInventoryOnHand", required = false) Boolean showInventoryOnHand,
+                                                    @RequestParam(value = "fields", required = false) List<String> fields,
+                                                    ServerWebExchange exchange){
+        boolean showInventory = Boolean.TRUE.equals(showInventoryOnHand);
+        Set<BeerField> beerFields = BeerField.fromProperties(fields);
+        MediaType mediaType = BeerMediaTypes.negotiate(exchange.getRequest().getHeaders().getAccept(), BeerMediaTypes.VALUES);
+
+        if (beerFields != null) {
+            return ok(mediaType, beerService.getById(beerId, showInventory, beerFields));
         }
 
-        return  ResponseEntity.ok(beerService.getById(beerId, showInventoryOnHand)
-                .defaultIfEmpty(BeerDto.builder().build())
-                .doOnNext(beerDto -> {
-                    if(beerDto.getId() ==null)
-                    {
-                        throw new NotFoundException();
-                    }
-                })
+        // JSON is already encoded and written to the response as is, the binary formats go through their codecs
+        Mono<?> body = MediaType.APPLICATION_JSON.equals(mediaType)
+                ? beerJsonCache.get(beerId, showInventory, exchange.getResponse().bufferFactory(),
+                        () -> beerService.getById(beerId, showInventory))
+                : beerService.getById(beerId, showInventory);
 
-        );
+        return ok(mediaType, body);
     }
 
 
@@ -100,57 +186,84 @@ public class BeerController {
         return new ResponseEntity<>(beerService.getByUpc(upc), HttpStatus.OK);
     }*/
 
-    @GetMapping("beerUpc/{upc}")
-    public ResponseEntity<Mono<BeerDto>> getBeerByUpc(@PathVariable("upc") String upc){
-        return ResponseEntity.ok(beerService.getByUpc(upc));
+    @GetMapping(produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, BeerMediaTypes.APPLICATION_SMILE_VALUE }, path = "beerUpc/{upc}")
+    public Mono<ResponseEntity<Object>> getBeerByUpc(@PathVariable("upc") String upc, ServerWebExchange exchange){
+        MediaType mediaType = BeerMediaTypes.negotiate(exchange.getRequest().getHeaders().getAccept(), BeerMediaTypes.VALUES);
+
+        // the upc lookup is cached as a beer, only its JSON encoding comes from the JSON cache
+        Mono<?> body = beerService.getByUpc(upc)
+                .flatMap(beerDto -> MediaType.APPLICATION_JSON.equals(mediaType)
+                        ? beerJsonCache.get(beerDto.getId(), false, exchange.getResponse().bufferFactory(), () -> Mono.just(beerDto))
+                        : Mono.just(beerDto));
+
+        return ok(mediaType, body);
     }
 
-    @PostMapping(path = "beer")
-    public ResponseEntity<Void> saveNewBeer(@RequestBody @Validated BeerDto beerDto){
+    private static Mono<ResponseEntity<Object>> ok(MediaType mediaType, Mono<?> body) {
+        return body.<ResponseEntity<Object>>map(value -> ResponseEntity.ok().contentType(mediaType).body(value))
+                .switchIfEmpty(Mono.error(new NotFoundException()));
+    }
 
-        // Atomic integer to capture beerID from saved beer
-        AtomicInteger atomicInteger= new AtomicInteger();
+    @PostMapping(path = "beer")
+    public Mono<ResponseEntity<Void>> saveNewBeer(@RequestBody @Validated BeerDto beerDto, UriComponentsBuilder uriComponentsBuilder){
+        // the builder is bound to the current request's scheme, host and port
+        return beerService.saveNewBeer(beerDto)
+                .map(savedBeer -> ResponseEntity
+                        .created(uriComponentsBuilder.path("/api/v1/beer/{beerId}")
+                                .buildAndExpand(savedBeer.getId())
+                                .toUri())
+                        .build());
+    }
 
-     beerService.saveNewBeer(beerDto).subscribe(saveNewBeer->{
-        atomicInteger.set(saveNewBeer.getId());
-     });
+    /**
+     * Creates many beers at once from a JSON array or NDJSON stream. Each item is validated on its own, so the
+     * response lists an id or the errors for every item, in request order. While scheduled resets are on, a
+     * catalog pushed past {@code sfg.brewery.reset.max-beers} is reset at the next check.
+     */
+    @PostMapping(path = "beer/batch")
+    public Flux<BeerBatchResult> saveNewBeers(@RequestBody Flux<BeerDto> beerDtos){
+        return beerService.saveNewBeers(beerDtos);
+    }
 
-        return ResponseEntity
-                .created(UriComponentsBuilder
-                        .fromHttpUrl("http://localhost:8080/api/v1/beer/" + atomicInteger.get())
-                        .build().toUri())
-                .build();
+    /**
+     * Upserts a supplier feed keyed on upc and reports how many beers were inserted, updated or left unchanged.
+     * As with {@link #saveNewBeers}, while scheduled resets are on, feeds that grow the catalog past
+     * {@code sfg.brewery.reset.max-beers} don't survive the next reset check.
+     */
+    @PostMapping(path = "beer/sync")
+    public Mono<BeerSyncResult> syncBeers(@RequestBody Flux<BeerDto> beerDtos){
+        return beerService.syncBeers(beerDtos);
     }
 
     @PutMapping("beer/{beerId}")
-    public ResponseEntity<Void> updateBeerById(@PathVariable("beerId") Integer beerId, @RequestBody @Validated BeerDto beerDto){
-        //beerService.updateBeer(beerId,beerDto);
-        //Need to give back presure otherwise update will not happen in Database
-        AtomicBoolean atomicBoolean= new AtomicBoolean(false);
-
-        beerService.updateBeer(beerId,beerDto).subscribe(updatedDto->{
-            if(updatedDto.getId()!=null)
-            {
-                atomicBoolean.set(true);
-            }
-        });
-        if(atomicBoolean.get())
-        return  ResponseEntity.noContent().build();
-        else
-            return ResponseEntity.notFound().build();
+    public Mono<ResponseEntity<Void>> updateBeerById(@PathVariable("beerId") Integer beerId, @RequestBody @Validated BeerDto beerDto){
+        // unknown ids are answered by handleNotFound, stale versions by MvcExceptionHandler
+        return beerService.updateBeer(beerId, beerDto)
+                .thenReturn(ResponseEntity.noContent().build());
     }
 
-    @DeleteMapping("beer/{beerId}")
-    public ResponseEntity<Void> deleteBeerById(@PathVariable("beerId") Integer beerId){
+    /**
+     * Writes only the fields present in the body, e.g. {@code {"version": 3, "price": 12.95}}.
+     */
+    @PatchMapping("beer/{beerId}")
+    public Mono<ResponseEntity<Void>> patchBeerById(@PathVariable("beerId") Integer beerId, @RequestBody @Validated BeerPatchDto patch){
+        return beerService.patchBeer(beerId, patch)
+                .thenReturn(ResponseEntity.noContent().build());
+    }
 
-        try {
-            beerService.deleteBeerById(beerId);
-        } catch (EmptyResultDataAccessException emptyResultDataAccessException){
-            log.debug("Beer id Not Found: {}", beerId.toString());
-            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
-        }
+    @DeleteMapping("beer/{beerId}")
+    public Mono<ResponseEntity<Void>> deleteBeerById(@PathVariable("beerId") Integer beerId){
+        // unknown ids are answered by handleNotFound
+        return beerService.reactiveDeleteById(beerId)
+                .thenReturn(ResponseEntity.ok().build());
+    }
 
-        return  ResponseEntity.ok().build();
+    /**
+     * Bulk delete - {@code ids=1,2,3}. Ids that don't exist are skipped and only show up in the counts.
+     */
+    @DeleteMapping(path = "beer", params = "ids")
+    public Mono<BeerDeleteResult> deleteBeersByIds(@RequestParam(value = "ids") List<Integer> ids){
+        return beerService.deleteByIds(ids);
     }
 
 }
@@ -1,20 +1,39 @@
 package guru.springframework.sfgrestbrewery.web.functional;
 
 import guru.springframework.sfgrestbrewery.repositories.BeerRepository;
+import guru.springframework.sfgrestbrewery.services.BeerJsonCache;
 import guru.springframework.sfgrestbrewery.services.BeerService;
+import guru.springframework.sfgrestbrewery.web.codec.BeerMediaTypes;
 import guru.springframework.sfgrestbrewery.web.controller.NotFoundException;
+import guru.springframework.sfgrestbrewery.web.model.BeerCursor;
 import guru.springframework.sfgrestbrewery.web.model.BeerDto;
+import guru.springframework.sfgrestbrewery.web.model.BeerField;
+import guru.springframework.sfgrestbrewery.web.model.BeerPatchDto;
+import guru.springframework.sfgrestbrewery.web.model.v2.BeerStyleEnum;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Conventions;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.validation.BeanPropertyBindingResult;
 import org.springframework.validation.Errors;
 import org.springframework.validation.Validator;
+import org.springframework.web.reactive.function.BodyInserters;
 import org.springframework.web.reactive.function.server.ServerRequest;
 import org.springframework.web.reactive.function.server.ServerResponse;
 import org.springframework.web.server.ServerWebInputException;
 import reactor.core.publisher.Mono;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
 
 
 @Slf4j
@@ -22,44 +41,178 @@ import reactor.core.publisher.Mono;
 @RequiredArgsConstructor
 public class BeerHandlerV2 {
     private final BeerService beerService;
+    private final BeerJsonCache beerJsonCache;
     private final Validator validator;
 
+    private static final int DEFAULT_PAGE_SIZE = 25;
+
+    public Mono<ServerResponse> listBeers(ServerRequest request)
+    {
+        String cursor = request.queryParam("cursor").orElse(null);
+        Integer pageSize = request.queryParam("pageSize").map(value -> parseInt("pageSize", value))
+                .filter(size -> size > 0).orElse(DEFAULT_PAGE_SIZE);
+        BeerCursor.SortKey sortKey = request.queryParam("sortBy").map(BeerCursor.SortKey::fromProperty).orElse(null);
+        String beerName = request.queryParam("beerName").orElse(null);
+        BeerStyleEnum beerStyle = beerStyle(request);
+        Boolean showInventory = showInventory(request);
+        Set<BeerField> fields = BeerField.fromProperties(commaSeparated(request, "fields"));
+
+        return beerService.listBeersByCursor(beerName, beerStyle, sortKey, cursor, pageSize, showInventory, fields)
+                .flatMap(page -> ServerResponse.ok().contentType(negotiate(request, BeerMediaTypes.VALUES)).bodyValue(page));
+    }
+
+    public Mono<ServerResponse> exportBeers(ServerRequest request)
+    {
+        String beerName = request.queryParam("beerName").orElse(null);
+        BeerStyleEnum beerStyle = beerStyle(request);
+        Boolean showInventory = showInventory(request);
+        return ServerResponse.ok()
+                .contentType(negotiate(request, BeerMediaTypes.STREAMS))
+                .body(beerService.exportBeers(beerName, beerStyle, showInventory), BeerDto.class);
+    }
+
     public Mono<ServerResponse> getBeerById(ServerRequest request)
     {
-        Integer beerId = Integer.valueOf(request.pathVariable("beerId"));
-        Boolean showInventory= Boolean.valueOf(request.queryParam("showInventory").orElse("false"));
-        return beerService.getById(beerId,showInventory)
-                .flatMap(beerDto -> {
-                   return ServerResponse.ok().bodyValue(beerDto);
-                }).switchIfEmpty(ServerResponse.notFound().build());
+        Integer beerId = beerId(request);
+        Boolean showInventory = showInventory(request);
+        Set<BeerField> fields = BeerField.fromProperties(commaSeparated(request, "fields"));
+        MediaType mediaType = negotiate(request, BeerMediaTypes.VALUES);
+        // sparse beers skip the JSON cache, which only holds whole ones
+        if (fields != null || !MediaType.APPLICATION_JSON.equals(mediaType)) {
+            return beerService.getById(beerId, showInventory, fields)
+                    .flatMap(beerDto -> ServerResponse.ok().contentType(mediaType).bodyValue(beerDto))
+                    .switchIfEmpty(ServerResponse.notFound().build());
+        }
+
+        return beerJsonCache.get(beerId, showInventory, bufferFactory(request), () -> beerService.getById(beerId,showInventory))
+                .flatMap(this::json)
+                .switchIfEmpty(ServerResponse.notFound().build());
+    }
+
+    public Mono<ServerResponse> getBeersByIds(ServerRequest request)
+    {
+        List<Integer> beerIds = commaSeparatedIds(request, "ids");
+        Boolean showInventory = showInventory(request);
+        return beerService.getByIds(beerIds, showInventory)
+                .flatMap(results -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(results));
+    }
+
+    public Mono<ServerResponse> getBeersByUpcs(ServerRequest request)
+    {
+        return beerService.getByUpcs(commaSeparated(request, "upcs"))
+                .flatMap(results -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(results));
+    }
+
+    private static List<String> commaSeparated(ServerRequest request, String name) {
+        return request.queryParams().getOrDefault(name, List.of()).stream()
+                .flatMap(value -> Arrays.stream(value.split(",")))
+                .map(String::trim)
+                .filter(value -> !value.isEmpty())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Like {@link #commaSeparated}, but every value must be an id, as binding {@code List<Integer>} requires in v1.
+     */
+    private static List<Integer> commaSeparatedIds(ServerRequest request, String name) {
+        return commaSeparated(request, name).stream()
+                .map(value -> parseId(name, value))
+                .collect(Collectors.toList());
+    }
+
+    private static Integer beerId(ServerRequest request) {
+        return parseId("beerId", request.pathVariable("beerId"));
+    }
+
+    private static Integer parseId(String name, String value) {
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new ServerWebInputException(name + " : not an id: " + value);
+        }
+    }
+
+    private static Integer parseInt(String name, String value) {
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new ServerWebInputException(name + " : not a number: " + value);
+        }
+    }
+
+    private static BeerStyleEnum beerStyle(ServerRequest request) {
+        return request.queryParam("beerStyle").map(value -> {
+            try {
+                return BeerStyleEnum.valueOf(value);
+            } catch (IllegalArgumentException e) {
+                throw new ServerWebInputException("beerStyle : unknown style: " + value);
+            }
+        }).orElse(null);
+    }
+
+    /**
+     * {@code showInventoryOnHand}, as in v1. The {@code showInventory} spelling v2 used to read is still accepted.
+     */
+    private static Boolean showInventory(ServerRequest request) {
+        return Boolean.valueOf(request.queryParam("showInventoryOnHand")
+                .or(() -> request.queryParam("showInventory"))
+                .orElse("false"));
     }
 
     public Mono<ServerResponse> getBeerByUpc(ServerRequest request)
     {
         String upc = request.pathVariable("upc");
+        MediaType mediaType = negotiate(request, BeerMediaTypes.VALUES);
+        if (!MediaType.APPLICATION_JSON.equals(mediaType)) {
+            return beerService.getByUpc(upc)
+                    .flatMap(beerDto -> ServerResponse.ok().contentType(mediaType).bodyValue(beerDto))
+                    .switchIfEmpty(ServerResponse.notFound().build());
+        }
+
         return beerService.getByUpc(upc)
-                .flatMap(beerDto -> {
-                    return ServerResponse.ok().bodyValue(beerDto);
-                }).switchIfEmpty(ServerResponse.notFound().build());
+                .flatMap(beerDto -> beerJsonCache.get(beerDto.getId(), false, bufferFactory(request), () -> Mono.just(beerDto)))
+                .flatMap(this::json)
+                .switchIfEmpty(ServerResponse.notFound().build());
+    }
+
+    /**
+     * Functional endpoints don't negotiate on their own, the writer is picked by the content type set here.
+     */
+    private static MediaType negotiate(ServerRequest request, List<MediaType> offered) {
+        return BeerMediaTypes.negotiate(request.headers().accept(), offered);
+    }
+
+    private Mono<ServerResponse> json(DataBuffer json) {
+        return ServerResponse.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(BodyInserters.fromDataBuffers(Mono.just(json)));
+    }
+
+    private static DataBufferFactory bufferFactory(ServerRequest request) {
+        return request.exchange().getResponse().bufferFactory();
     }
     public Mono<ServerResponse> updateBeer(ServerRequest request){
-        return request.bodyToMono(BeerDto.class).doOnNext(this::validate)
+        Integer beerId = beerId(request);
+        return validBody(request, BeerDto.class)
                 .flatMap(beerDto -> {
-                   return beerService.updateBeer(Integer.valueOf(request.pathVariable("beerId")),beerDto);
-                }).flatMap(updatedBeer->{
-                    if(updatedBeer.getId()!=null) {
-                        log.debug("beer Updated" + updatedBeer.getId());
-                        return ServerResponse.noContent().build();
-                    }
-                    else
-                    {
-                        log.debug("beer is not updated becuase beer not found in find method");
-                        return ServerResponse.notFound().build();
-                    }
-                });
+                   return beerService.updateBeer(beerId,beerDto);
+                }).then(ServerResponse.noContent().build())
+                .onErrorResume(NotFoundException.class, e -> ServerResponse.notFound().build())
+                .onErrorResume(OptimisticLockingFailureException.class, e -> ServerResponse.status(HttpStatus.CONFLICT).build())
+                .onErrorResume(DataIntegrityViolationException.class, e -> ServerResponse.status(HttpStatus.CONFLICT).build());
 
     }
 
+    public Mono<ServerResponse> patchBeer(ServerRequest request){
+        Integer beerId = beerId(request);
+        return validBody(request, BeerPatchDto.class)
+                .flatMap(patch -> beerService.patchBeer(beerId, patch))
+                .then(ServerResponse.noContent().build())
+                .onErrorResume(NotFoundException.class, e -> ServerResponse.notFound().build())
+                .onErrorResume(OptimisticLockingFailureException.class, e -> ServerResponse.status(HttpStatus.CONFLICT).build())
+                .onErrorResume(DataIntegrityViolationException.class, e -> ServerResponse.status(HttpStatus.CONFLICT).build());
+    }
+
     public Mono<ServerResponse> saveNewBeer(ServerRequest request){
         Mono<BeerDto> beerDtoMono = request.bodyToMono(BeerDto.class).doOnNext(this::validate);
 
@@ -68,15 +221,38 @@ public class BeerHandlerV2 {
                     return ServerResponse.ok()
                             .header("location", "/api/v2/beer" + "/" + beerDto.getId())
                             .build();
-                });
+                }).onErrorResume(DataIntegrityViolationException.class, e -> ServerResponse.status(HttpStatus.CONFLICT).build());
+    }
+
+    public Mono<ServerResponse> saveNewBeers(ServerRequest request){
+        // items are validated one by one in the service, a bad item doesn't fail the request
+        return beerService.saveNewBeers(request.bodyToFlux(BeerDto.class))
+                .collectList()
+                .flatMap(results -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(results))
+                .onErrorResume(DataIntegrityViolationException.class, e -> ServerResponse.status(HttpStatus.CONFLICT).build());
+    }
+
+    public Mono<ServerResponse> syncBeers(ServerRequest request){
+        return beerService.syncBeers(request.bodyToFlux(BeerDto.class))
+                .flatMap(result -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(result));
+    }
+
+    /**
+     * The validated body. A missing body is a 400, as {@code @RequestBody} makes it in the v1 controller, rather
+     * than an empty Mono that would skip the write and still answer 2xx.
+     */
+    private <T> Mono<T> validBody(ServerRequest request, Class<T> type) {
+        return request.bodyToMono(type)
+                .switchIfEmpty(Mono.error(() -> new ServerWebInputException("Request body is missing")))
+                .doOnNext(this::validate);
     }
 
     //Validation Step since MVC @Validated is not there in reactive
 
-    private void validate(BeerDto beerDto)
+    private void validate(Object body)
     {
-        Errors errors = new BeanPropertyBindingResult(beerDto,"beerDto");
-        validator.validate(beerDto, errors);
+        Errors errors = new BeanPropertyBindingResult(body, Conventions.getVariableName(body));
+        validator.validate(body, errors);
         if(errors.hasErrors())
         {
             throw new ServerWebInputException(errors.toString());
@@ -85,9 +261,13 @@ public class BeerHandlerV2 {
     }
 
     public Mono<ServerResponse> deleteById(ServerRequest request) {
-        return beerService.reactiveDeleteById(Integer.valueOf(request.pathVariable("beerId")))
-                .flatMap(voidMono->{
-                    return ServerResponse.ok().build();
-                }).onErrorResume(e-> e instanceof NotFoundException, e-> ServerResponse.notFound().build());
+        return beerService.reactiveDeleteById(beerId(request))
+                .then(ServerResponse.ok().build())
+                .onErrorResume(e-> e instanceof NotFoundException, e-> ServerResponse.notFound().build());
+    }
+
+    public Mono<ServerResponse> deleteByIds(ServerRequest request) {
+        return beerService.deleteByIds(commaSeparatedIds(request, "ids"))
+                .flatMap(result -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(result));
     }
 }
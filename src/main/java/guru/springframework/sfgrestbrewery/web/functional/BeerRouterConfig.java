@@ -1,5 +1,6 @@
 package guru.springframework.sfgrestbrewery.web.functional;
 
+import guru.springframework.sfgrestbrewery.web.codec.BeerMediaTypes;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.MediaType;
@@ -7,21 +8,38 @@ import org.springframework.web.reactive.function.server.RouterFunction;
 import org.springframework.web.reactive.function.server.ServerResponse;
 
 import static org.springframework.web.reactive.function.server.RequestPredicates.accept;
+import static org.springframework.web.reactive.function.server.RequestPredicates.queryParam;
 import static org.springframework.web.reactive.function.server.RouterFunctions.route;
 
 @Configuration
 public class BeerRouterConfig {
 
     private static final MediaType APPLICATION_JSON = MediaType.APPLICATION_JSON;
+    private static final MediaType[] VALUES = BeerMediaTypes.VALUES.toArray(new MediaType[0]);
+    private static final MediaType[] STREAMS = BeerMediaTypes.STREAMS.toArray(new MediaType[0]);
 
     @Bean
     public RouterFunction<ServerResponse> beerRouterV2(BeerHandlerV2 handler) {
-        return route().GET("/api/v2/beer/{beerId}",
-                        accept(APPLICATION_JSON), handler::getBeerById)
+        return route().GET("/api/v2/beer",
+                        accept(APPLICATION_JSON).and(queryParam("ids", ids -> true)), handler::getBeersByIds)
+                .GET("/api/v2/beer",
+                        accept(VALUES), handler::listBeers)
+                .GET("/api/v2/beerUpc",
+                        accept(APPLICATION_JSON).and(queryParam("upcs", upcs -> true)), handler::getBeersByUpcs)
+                .GET("/api/v2/beer/export",
+                        accept(STREAMS), handler::exportBeers)
+                .GET("/api/v2/beer/{beerId}",
+                        accept(VALUES), handler::getBeerById)
                 .GET("/api/v2/beerUpc/{upc}",
-                        accept(APPLICATION_JSON), handler::getBeerByUpc)
+                        accept(VALUES), handler::getBeerByUpc)
+                // scheduled resets, when on, wipe whatever takes the catalog past sfg.brewery.reset.max-beers, see BeerController
+                .POST("/api/v2/beer/batch",accept(APPLICATION_JSON),handler::saveNewBeers)
+                .POST("/api/v2/beer/sync",accept(APPLICATION_JSON),handler::syncBeers)
                 .POST("/api/v2/beer",accept(MediaType.APPLICATION_JSON),handler::saveNewBeer)
                 .PUT("/api/v2/beer/{beerId}",accept(APPLICATION_JSON),handler::updateBeer)
+                .PATCH("/api/v2/beer/{beerId}",accept(APPLICATION_JSON),handler::patchBeer)
+                .DELETE("/api/v2/beer",
+                        accept(APPLICATION_JSON).and(queryParam("ids", ids -> true)), handler::deleteByIds)
                 .DELETE("/api/v2/beer/{beerId}",accept(APPLICATION_JSON),handler::deleteById)
                 .build();
 
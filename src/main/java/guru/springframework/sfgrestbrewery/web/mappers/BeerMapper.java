@@ -13,8 +13,10 @@ import org.mapstruct.Mapping;
 public interface BeerMapper {
 
     @Mapping(target = "quantityOnHand", ignore = true)
+    @Mapping(target = "lastUpdatedDate", source = "lastModifiedDate")
     BeerDto beerToBeerDto(Beer beer);
 
+    @Mapping(target = "lastUpdatedDate", source = "lastModifiedDate")
     BeerDto beerToBeerDtoWithInventory(Beer beer);
 
     Beer beerDtoToBeer(BeerDto dto);
@@ -0,0 +1,25 @@
+package guru.springframework.sfgrestbrewery.web.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of one item of a bulk request: the new id, or why the item was rejected. {@code index} is the
+ * item's position in the request.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BeerBatchResult {
+
+    private long index;
+
+    private Integer id;
+
+    private List<String> errors;
+}
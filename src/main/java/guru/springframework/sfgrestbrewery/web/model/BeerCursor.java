@@ -0,0 +1,61 @@
+package guru.springframework.sfgrestbrewery.web.model;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ServerWebInputException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position of the last row returned by a keyset (seek) page. Clients only ever see the encoded form,
+ * which is handed back unchanged to fetch the next page.
+ */
+@Value
+public class BeerCursor {
+
+    @Getter
+    @RequiredArgsConstructor
+    public enum SortKey {
+        ID("id"),
+        BEER_NAME("beerName");
+
+        private final String property;
+
+        public static SortKey fromProperty(String property) {
+            if (!StringUtils.hasText(property)) {
+                return ID;
+            }
+            for (SortKey sortKey : values()) {
+                if (sortKey.property.equals(property)) {
+                    return sortKey;
+                }
+            }
+            throw new ServerWebInputException("Unsupported sort property: " + property);
+        }
+    }
+
+    SortKey sortKey;
+    Integer lastId;
+    String lastValue;
+
+    /**
+     * A null {@code lastValue} leaves its part out, so it stays distinct from an empty one.
+     */
+    public String encode() {
+        String raw = sortKey.name() + ":" + lastId + (lastValue == null ? "" : ":" + lastValue);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static BeerCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":", 3);
+            return new BeerCursor(SortKey.valueOf(parts[0]), Integer.valueOf(parts[1]), parts.length > 2 ? parts[2] : null);
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw new ServerWebInputException("Invalid cursor");
+        }
+    }
+}
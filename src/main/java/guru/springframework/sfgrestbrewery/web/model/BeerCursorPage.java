@@ -0,0 +1,24 @@
+package guru.springframework.sfgrestbrewery.web.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Page of beers fetched by seeking past a cursor. {@code nextCursor} is null on the last page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BeerCursorPage {
+
+    private List<BeerDto> content;
+
+    private int size;
+
+    private String nextCursor;
+}
@@ -24,6 +24,11 @@ public class BeerDto {
     @Null
     private Integer id;
 
+    /**
+     * Version the client read. An update carrying it is rejected if the beer has changed since.
+     */
+    private Long version;
+
     @NotBlank
     private String beerName;
 
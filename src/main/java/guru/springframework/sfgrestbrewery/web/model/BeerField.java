@@ -0,0 +1,55 @@
+package guru.springframework.sfgrestbrewery.web.model;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.server.ServerWebInputException;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * A {@link BeerDto} field that can be asked for with {@code fields=}, and the {@code Beer} property it is read from.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum BeerField {
+    ID("id", "id"),
+    VERSION("version", "version"),
+    BEER_NAME("beerName", "beerName"),
+    BEER_STYLE("beerStyle", "beerStyle"),
+    UPC("upc", "upc"),
+    PRICE("price", "price"),
+    QUANTITY_ON_HAND("quantityOnHand", "quantityOnHand"),
+    CREATED_DATE("createdDate", "createdDate"),
+    LAST_UPDATED_DATE("lastUpdatedDate", "lastModifiedDate");
+
+    private final String property;
+    private final String column;
+
+    /**
+     * The fields named in {@code fields=a,b,c}, or null (every field) when none are named.
+     */
+    public static Set<BeerField> fromProperties(Collection<String> properties) {
+        if (properties == null) {
+            return null;
+        }
+
+        Set<BeerField> fields = EnumSet.noneOf(BeerField.class);
+        for (String property : properties) {
+            if (!property.trim().isEmpty()) {
+                fields.add(fromProperty(property.trim()));
+            }
+        }
+        return fields.isEmpty() ? null : fields;
+    }
+
+    private static BeerField fromProperty(String property) {
+        for (BeerField field : values()) {
+            if (field.property.equals(property)) {
+                return field;
+            }
+        }
+        throw new ServerWebInputException("Unknown field: " + property);
+    }
+}
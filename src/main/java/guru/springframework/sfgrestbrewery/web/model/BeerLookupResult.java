@@ -0,0 +1,34 @@
+package guru.springframework.sfgrestbrewery.web.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One entry of a multi-get response: the requested id or upc, whether it was found, and the beer if it was.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BeerLookupResult {
+
+    private Integer id;
+
+    private String upc;
+
+    private boolean found;
+
+    private BeerDto beer;
+
+    public static BeerLookupResult ofId(Integer id, BeerDto beer) {
+        return BeerLookupResult.builder().id(id).found(beer != null).beer(beer).build();
+    }
+
+    public static BeerLookupResult ofUpc(String upc, BeerDto beer) {
+        return BeerLookupResult.builder().upc(upc).found(beer != null).beer(beer).build();
+    }
+}
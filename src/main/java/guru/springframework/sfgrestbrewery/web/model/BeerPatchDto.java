@@ -0,0 +1,35 @@
+package guru.springframework.sfgrestbrewery.web.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Pattern;
+import java.math.BigDecimal;
+
+/**
+ * Sparse beer update: only the fields present (non null) are written. The version read by the client is
+ * required, so a patch can't silently overwrite a change it hasn't seen.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BeerPatchDto {
+
+    @NotNull
+    private Long version;
+
+    @Pattern(regexp = ".*\\S.*", message = "must not be blank")
+    private String beerName;
+
+    private String beerStyle;
+
+    private String upc;
+
+    private BigDecimal price;
+
+    private Integer quantityOnHand;
+}
@@ -0,0 +1,28 @@
+package guru.springframework.sfgrestbrewery.web.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Summary of an upsert-by-UPC sync. Items that could not be synced are listed with their errors.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BeerSyncResult {
+
+    private long inserted;
+
+    private long updated;
+
+    private long unchanged;
+
+    @Builder.Default
+    private List<BeerBatchResult> rejected = new ArrayList<>();
+}
@@ -0,0 +1,54 @@
+package guru.springframework.sfgrestbrewery.web.model;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Set;
+
+/**
+ * A beer read with {@code fields=}. Only {@link #getFields()} are set, and only those are written out.
+ */
+@Getter
+@ToString(callSuper = true)
+@EqualsAndHashCode(callSuper = true)
+public class SparseBeerDto extends BeerDto {
+
+    private final Set<BeerField> fields;
+
+    public SparseBeerDto(BeerDto beer, Set<BeerField> fields) {
+        this.fields = fields;
+
+        for (BeerField field : fields) {
+            switch (field) {
+                case ID:
+                    setId(beer.getId());
+                    break;
+                case VERSION:
+                    setVersion(beer.getVersion());
+                    break;
+                case BEER_NAME:
+                    setBeerName(beer.getBeerName());
+                    break;
+                case BEER_STYLE:
+                    setBeerStyle(beer.getBeerStyle());
+                    break;
+                case UPC:
+                    setUpc(beer.getUpc());
+                    break;
+                case PRICE:
+                    setPrice(beer.getPrice());
+                    break;
+                case QUANTITY_ON_HAND:
+                    setQuantityOnHand(beer.getQuantityOnHand());
+                    break;
+                case CREATED_DATE:
+                    setCreatedDate(beer.getCreatedDate());
+                    break;
+                case LAST_UPDATED_DATE:
+                    setLastUpdatedDate(beer.getLastUpdatedDate());
+                    break;
+            }
+        }
+    }
+}
@@ -9,4 +9,13 @@ CREATE TABLE if NOT EXISTS beer
     price          decimal,
     created_date   timestamp,
     last_modified_date timestamp
-    );
\ No newline at end of file
+    );
+
+-- findByUpc; upc identifies a beer, so it is also enforced unique (NULLs are allowed more than once)
+CREATE UNIQUE INDEX IF NOT EXISTS beer_upc_uidx ON beer (upc);
+
+-- listBeers by style, by style and name, and seek pages sorted by name within a style
+CREATE INDEX IF NOT EXISTS beer_style_name_idx ON beer (beer_style, beer_name);
+
+-- listBeers by name, and seek pages sorted by name
+CREATE INDEX IF NOT EXISTS beer_name_idx ON beer (beer_name);
@@ -0,0 +1,100 @@
+package guru.springframework.sfgrestbrewery.benchmarks;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import guru.springframework.sfgrestbrewery.web.codec.BeerJsonModule;
+import guru.springframework.sfgrestbrewery.web.model.BeerDto;
+import guru.springframework.sfgrestbrewery.web.model.BeerPagedList;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encodes and decodes a page of beers as JSON, Smile and CBOR, with mappers set up the way
+ * {@code CodecConfig} sets up the WebFlux codecs. The encoded size of each page is printed at setup, since
+ * payload size matters as much as CPU to the clients.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BeerBinaryFormatBenchmark {
+
+    @Param({"json", "smile", "cbor"})
+    String format;
+
+    @Param({"25", "1000"})
+    int pageSize;
+
+    ObjectMapper mapper;
+    BeerPagedList page;
+    byte[] encoded;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        mapper = Jackson2ObjectMapperBuilder.json()
+                .factory(factory(format))
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .modulesToInstall(new BeerJsonModule())
+                .build();
+
+        List<BeerDto> beers = new ArrayList<>(pageSize);
+        for (int i = 1; i <= pageSize; i++) {
+            beers.add(BeerDto.builder()
+                    .id(i)
+                    .version(0L)
+                    .beerName("Bench Beer " + i)
+                    .beerStyle("IPA")
+                    .upc(String.format("3%012d", i))
+                    .price(BigDecimal.valueOf(100 + i % 9000, 2))
+                    .quantityOnHand(i % 500)
+                    .createdDate(LocalDateTime.of(2021, 3, 7, 12, 0).plusMinutes(i))
+                    .lastUpdatedDate(LocalDateTime.of(2021, 3, 8, 12, 0).plusMinutes(i))
+                    .build());
+        }
+        page = new BeerPagedList(beers, PageRequest.of(3, pageSize), 100_000);
+        encoded = mapper.writeValueAsBytes(page);
+
+        System.out.printf("%n%s page of %d: %d bytes%n", format, pageSize, encoded.length);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        return mapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public BeerPagedList decode() throws IOException {
+        return mapper.readValue(encoded, BeerPagedList.class);
+    }
+
+    private static JsonFactory factory(String format) {
+        switch (format) {
+            case "smile":
+                return new SmileFactory();
+            case "cbor":
+                return new CBORFactory();
+            default:
+                return new JsonFactory();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(BeerBinaryFormatBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,95 @@
+package guru.springframework.sfgrestbrewery.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import guru.springframework.sfgrestbrewery.web.codec.BeerJsonModule;
+import guru.springframework.sfgrestbrewery.web.model.BeerDto;
+import guru.springframework.sfgrestbrewery.web.model.BeerPagedList;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes and reads a page of beers with the default Jackson path (bean serializers, {@code PageImpl} properties and
+ * the {@code JsonNode}-based creator) versus {@link BeerJsonModule}. Both mappers are configured the way Boot
+ * configures the application's. Add {@code -prof gc} to the runner arguments to compare allocation as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BeerJsonCodecBenchmark {
+
+    @Param({"25", "1000"})
+    int pageSize;
+
+    ObjectMapper defaultMapper;
+    ObjectMapper leanMapper;
+    BeerPagedList page;
+    byte[] defaultJson;
+    byte[] leanJson;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        // Boot writes dates as ISO strings, plain Jackson2ObjectMapperBuilder as timestamp arrays
+        defaultMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        leanMapper = defaultMapper.copy().registerModule(new BeerJsonModule());
+
+        List<BeerDto> beers = new ArrayList<>(pageSize);
+        for (int i = 1; i <= pageSize; i++) {
+            beers.add(BeerDto.builder()
+                    .id(i)
+                    .version(0L)
+                    .beerName("Bench Beer " + i)
+                    .beerStyle("IPA")
+                    .upc(String.format("3%012d", i))
+                    .price(BigDecimal.valueOf(100 + i % 9000, 2))
+                    .quantityOnHand(i % 500)
+                    .createdDate(LocalDateTime.of(2021, 3, 7, 12, 0).plusMinutes(i))
+                    .lastUpdatedDate(LocalDateTime.of(2021, 3, 8, 12, 0).plusMinutes(i))
+                    .build());
+        }
+        page = new BeerPagedList(beers, PageRequest.of(3, pageSize), 100_000);
+
+        defaultJson = defaultMapper.writeValueAsBytes(page);
+        leanJson = leanMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] defaultWrite() throws IOException {
+        return defaultMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] leanWrite() throws IOException {
+        return leanMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public BeerPagedList defaultRead() throws IOException {
+        return defaultMapper.readValue(defaultJson, BeerPagedList.class);
+    }
+
+    @Benchmark
+    public BeerPagedList leanRead() throws IOException {
+        return leanMapper.readValue(leanJson, BeerPagedList.class);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(BeerJsonCodecBenchmark.class.getSimpleName()).build()).run();
+    }
+}
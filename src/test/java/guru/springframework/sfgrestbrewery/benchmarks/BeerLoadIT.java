@@ -0,0 +1,230 @@
+package guru.springframework.sfgrestbrewery.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import guru.springframework.sfgrestbrewery.web.model.BeerDto;
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.File;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Open-loop load test of the v1 (annotated controller) and v2 (functional router) beer APIs. Requests are
+ * started at a fixed rate whether or not earlier ones have finished, and latency is measured from when each
+ * request was due to start, so a stalled server shows up as latency rather than as a lower request rate.
+ *
+ * Tuned with system properties, e.g. {@code mvn test -Dtest=BeerLoadIT -Dload.rps=500 -Dload.read-ratio=0.9}:
+ * {@code load.rps}, {@code load.duration-seconds}, {@code load.warmup-seconds}, {@code load.read-ratio},
+ * {@code load.stacks}, {@code load.max-error-rate} and {@code load.report}. The JSON report is written to
+ * {@code target/load-test/beer-load-report.json} by default.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "logging.level.root=warn",
+        "logging.level.guru.springframework.sfgrestbrewery=warn",
+        // but keep the results this test logs
+        "logging.level.guru.springframework.sfgrestbrewery.benchmarks=info",
+        "logging.level.org.springframework.data.r2dbc=warn",
+        "logging.level.org.springframework.r2dbc=warn",
+        "logging.level.io.r2dbc=warn",
+        "logging.level.reactor.netty.http=warn",
+        // writes grow the catalog past the demo reset limit
+        "sfg.brewery.reset.enabled=false"})
+@Slf4j
+class BeerLoadIT {
+
+    private static final long REQUEST_TIMEOUT_NANOS = Duration.ofSeconds(10).toNanos();
+
+    final int rps = Integer.getInteger("load.rps", 200);
+    final int durationSeconds = Integer.getInteger("load.duration-seconds", 20);
+    final int warmupSeconds = Integer.getInteger("load.warmup-seconds", 5);
+    final double readRatio = Double.parseDouble(System.getProperty("load.read-ratio", "0.8"));
+    final List<String> stacks = Arrays.asList(System.getProperty("load.stacks", "v1,v2").split(","));
+    // pass 1.0 to only report
+    final double maxErrorRate = Double.parseDouble(System.getProperty("load.max-error-rate", "0.01"));
+    final String report = System.getProperty("load.report", "target/load-test/beer-load-report.json");
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    WebClient webClient;
+    List<JsonNode> beers;
+    final AtomicLong upcSequence = new AtomicLong();
+
+    @Test
+    void readWriteMix() throws Exception {
+        webClient = WebClient.builder()
+                .baseUrl("http://localhost:" + port)
+                // open loop: connections must never be what limits the arrival rate
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(ConnectionProvider.builder("load")
+                        .maxConnections(1000)
+                        .pendingAcquireMaxCount(-1)
+                        .build())))
+                .build();
+
+        beers = new ArrayList<>();
+        webClient.get().uri("/api/v1/beer?pageSize=1000")
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .block()
+                .get("content")
+                .forEach(beers::add);
+
+        Map<String, Object> results = new LinkedHashMap<>();
+        for (String stack : stacks) {
+            run(stack, warmupSeconds);
+            results.put(stack, run(stack, durationSeconds));
+        }
+
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("rps", rps);
+        config.put("durationSeconds", durationSeconds);
+        config.put("warmupSeconds", warmupSeconds);
+        config.put("readRatio", readRatio);
+
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("config", config);
+        json.put("results", results);
+
+        File reportFile = new File(report);
+        reportFile.getAbsoluteFile().getParentFile().mkdirs();
+        objectMapper.writer().with(SerializationFeature.INDENT_OUTPUT).writeValue(reportFile, json);
+        log.info("Load test results:\n{}", objectMapper.writer().with(SerializationFeature.INDENT_OUTPUT).writeValueAsString(json));
+
+        for (String stack : stacks) {
+            assertThat(((StackResult) results.get(stack)).getErrorRate())
+                    .as("%s error rate", stack)
+                    .isLessThanOrEqualTo(maxErrorRate);
+        }
+    }
+
+    private StackResult run(String stack, int seconds) {
+        Histogram latencies = new Histogram(REQUEST_TIMEOUT_NANOS, 3);
+        Map<String, AtomicLong> statuses = new TreeMap<>();
+        AtomicLong errors = new AtomicLong();
+        long periodNanos = 1_000_000_000L / rps;
+        long total = (long) rps * seconds;
+        long start = System.nanoTime();
+
+        Flux.interval(Duration.ZERO, Duration.ofNanos(periodNanos))
+                .take(total)
+                .flatMap(i -> {
+                    long due = start + i * periodNanos;
+                    return request(stack)
+                            .map(Object::toString)
+                            .timeout(Duration.ofNanos(REQUEST_TIMEOUT_NANOS))
+                            .onErrorResume(error -> Mono.just(error.getClass().getSimpleName()))
+                            .doOnNext(outcome -> {
+                                synchronized (latencies) {
+                                    latencies.recordValue(Math.min(System.nanoTime() - due, REQUEST_TIMEOUT_NANOS));
+                                    statuses.computeIfAbsent(outcome, key -> new AtomicLong()).incrementAndGet();
+                                }
+                                if (!outcome.startsWith("2")) {
+                                    errors.incrementAndGet();
+                                }
+                            });
+                }, Integer.MAX_VALUE)
+                .blockLast();
+
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+        long requests = latencies.getTotalCount();
+
+        return StackResult.builder()
+                .requests(requests)
+                .errors(errors.get())
+                .errorRate(requests == 0 ? 0 : (double) errors.get() / requests)
+                .throughput((requests - errors.get()) / elapsedSeconds)
+                .p50Ms(latencies.getValueAtPercentile(50) / 1e6)
+                .p99Ms(latencies.getValueAtPercentile(99) / 1e6)
+                .p999Ms(latencies.getValueAtPercentile(99.9) / 1e6)
+                .maxMs(latencies.getMaxValue() / 1e6)
+                .statuses(statuses)
+                .build();
+    }
+
+    /**
+     * One request of the mix, emitting its HTTP status. Reads are split between get by id, get by upc and a
+     * page of the list; writes between creating a beer and updating an existing one.
+     */
+    private Mono<Integer> request(String stack) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        JsonNode beer = beers.get(random.nextInt(beers.size()));
+        String api = "/api/" + stack;
+
+        WebClient.RequestHeadersSpec<?> spec;
+        if (random.nextDouble() < readRatio) {
+            switch (random.nextInt(3)) {
+                case 0:
+                    spec = webClient.get().uri(api + "/beer/{id}", beer.get("id").asInt());
+                    break;
+                case 1:
+                    spec = webClient.get().uri(api + "/beerUpc/{upc}", beer.get("upc").asText());
+                    break;
+                default:
+                    spec = webClient.get().uri(api + "/beer?pageSize=25");
+            }
+        } else if (random.nextBoolean()) {
+            spec = webClient.post().uri(api + "/beer")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(BeerDto.builder()
+                            .beerName("Load Beer")
+                            .beerStyle("IPA")
+                            .upc(String.format("7%012d", upcSequence.incrementAndGet()))
+                            .price(new BigDecimal("9.99"))
+                            .build());
+        } else {
+            spec = webClient.put().uri(api + "/beer/{id}", beer.get("id").asInt())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(BeerDto.builder()
+                            .beerName(beer.get("beerName").asText())
+                            .beerStyle(beer.get("beerStyle").asText())
+                            .upc(beer.get("upc").asText())
+                            .price(BigDecimal.valueOf(random.nextInt(100, 10000), 2))
+                            .build());
+        }
+
+        return spec.exchangeToMono(response -> response.releaseBody().thenReturn(response.rawStatusCode()));
+    }
+
+    @Value
+    @Builder
+    static class StackResult {
+        long requests;
+        long errors;
+        double errorRate;
+        double throughput;
+        double p50Ms;
+        double p99Ms;
+        double p999Ms;
+        double maxMs;
+        Map<String, AtomicLong> statuses;
+    }
+}
@@ -0,0 +1,65 @@
+package guru.springframework.sfgrestbrewery.benchmarks;
+
+import guru.springframework.sfgrestbrewery.services.BeerService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import reactor.core.publisher.Flux;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@code concurrency} simultaneous getById calls for distinct ids, with each lookup as its own
+ * query versus micro-batched into IN queries. Inventory lookups are used so the beer cache stays out of it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BeerLookupBatchingBenchmark {
+
+    static final int CATALOG_SIZE = 10_000;
+
+    @Param({"false", "true"})
+    boolean batching;
+
+    @Param({"1", "16", "256"})
+    int concurrency;
+
+    ConfigurableApplicationContext context;
+    BeerService beerService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContexts.startWithCatalog(CATALOG_SIZE, "sfg.brewery.beer-lookup-batch.enabled=" + batching,
+                "sfg.brewery.beer-lookup-batch.window=1ms");
+        beerService = context.getBean(BeerService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * One operation is {@code concurrency} lookups in flight at once; ops/s times concurrency is lookups/s.
+     */
+    @Benchmark
+    public Long concurrentGetById() {
+        int first = ThreadLocalRandom.current().nextInt(1, CATALOG_SIZE - concurrency);
+
+        return Flux.range(first, concurrency)
+                .flatMap(beerId -> beerService.getById(beerId, true), concurrency)
+                .count()
+                .block();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(BeerLookupBatchingBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,65 @@
+package guru.springframework.sfgrestbrewery.benchmarks;
+
+import guru.springframework.sfgrestbrewery.services.BeerService;
+import guru.springframework.sfgrestbrewery.web.model.BeerCursor;
+import guru.springframework.sfgrestbrewery.web.model.BeerCursorPage;
+import guru.springframework.sfgrestbrewery.web.model.BeerPagedList;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares LIMIT/OFFSET paging with keyset paging at increasing depths into the catalog. Offset paging
+ * degrades linearly with {@code offset}; the seek variant should stay flat.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BeerPagingBenchmark {
+
+    static final int CATALOG_SIZE = 250_000;
+    static final int PAGE_SIZE = 25;
+
+    @Param({"0", "10000", "100000", "240000"})
+    int offset;
+
+    ConfigurableApplicationContext context;
+    BeerService beerService;
+    String cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContexts.startWithCatalog(CATALOG_SIZE);
+        beerService = context.getBean(BeerService.class);
+
+        // ids are sequential, so the cursor for "everything after row N" is just the id N
+        cursor = new BeerCursor(BeerCursor.SortKey.ID, offset, null).encode();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public BeerPagedList offsetPage() {
+        return beerService.listBeers(null, null, PageRequest.of(offset / PAGE_SIZE, PAGE_SIZE), false).block();
+    }
+
+    @Benchmark
+    public BeerCursorPage seekPage() {
+        return beerService.listBeersByCursor(null, null, BeerCursor.SortKey.ID, cursor, PAGE_SIZE, false).block();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(BeerPagingBenchmark.class.getSimpleName()).build()).run();
+    }
+}
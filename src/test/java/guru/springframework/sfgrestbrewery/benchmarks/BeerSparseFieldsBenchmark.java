@@ -0,0 +1,71 @@
+package guru.springframework.sfgrestbrewery.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import guru.springframework.sfgrestbrewery.services.BeerService;
+import guru.springframework.sfgrestbrewery.web.codec.BeerJsonModule;
+import guru.springframework.sfgrestbrewery.web.model.BeerCursor;
+import guru.springframework.sfgrestbrewery.web.model.BeerField;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads a page of beers with every column versus {@code fields=id,beerName,price}, through the service and the
+ * JSON encoding the controllers use. The encoded size of each page is printed at setup. Add {@code -prof gc} to
+ * the runner arguments to compare allocation as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BeerSparseFieldsBenchmark {
+
+    static final int CATALOG_SIZE = 10_000;
+    static final Set<BeerField> FIELDS = EnumSet.of(BeerField.ID, BeerField.BEER_NAME, BeerField.PRICE);
+
+    @Param({"25", "1000"})
+    int pageSize;
+
+    ConfigurableApplicationContext context;
+    BeerService beerService;
+    ObjectMapper objectMapper;
+
+    @Setup(Level.Trial)
+    public void setUp() throws JsonProcessingException {
+        context = BenchmarkContexts.startWithCatalog(CATALOG_SIZE);
+        beerService = context.getBean(BeerService.class);
+        objectMapper = context.getBean(ObjectMapper.class).copy().registerModule(new BeerJsonModule());
+
+        System.out.printf("%nfull page of %d: %d bytes, sparse: %d bytes%n", pageSize, fullPage().length, sparsePage().length);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] fullPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(beerService.listBeersByCursor(null, null, BeerCursor.SortKey.ID, "",
+                pageSize, false).block());
+    }
+
+    @Benchmark
+    public byte[] sparsePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(beerService.listBeersByCursor(null, null, BeerCursor.SortKey.ID, "",
+                pageSize, false, FIELDS).block());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(BeerSparseFieldsBenchmark.class.getSimpleName()).build()).run();
+    }
+}
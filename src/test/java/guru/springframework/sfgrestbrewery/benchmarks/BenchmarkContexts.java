@@ -0,0 +1,43 @@
+package guru.springframework.sfgrestbrewery.benchmarks;
+
+import guru.springframework.sfgrestbrewery.SfgRestfulBreweryApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Arrays;
+
+/**
+ * Boots the application without a web server and with SQL logging turned down, so benchmarks measure
+ * the service and database rather than log appenders. The scheduled catalog reset is off.
+ */
+final class BenchmarkContexts {
+
+    private BenchmarkContexts() {
+    }
+
+    static ConfigurableApplicationContext start(String... properties) {
+        return new SpringApplicationBuilder(SfgRestfulBreweryApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("logging.level.root=warn",
+                        "logging.level.guru.springframework.sfgrestbrewery=warn",
+                        "logging.level.org.springframework.data.r2dbc=warn",
+                        "logging.level.org.springframework.r2dbc=warn",
+                        "logging.level.io.r2dbc=warn",
+                        // benchmarks seed far more beers than the demo reset allows
+                        "sfg.brewery.reset.enabled=false")
+                .properties(properties)
+                .run();
+    }
+
+    /**
+     * Like {@link #start}, with {@code catalogSize} generated beers on top of the fixed ones. The in-memory
+     * database outlives the context, so only the first trial of a fork seeds it and later trials reuse that catalog.
+     */
+    static ConfigurableApplicationContext startWithCatalog(int catalogSize, String... properties) {
+        String[] withCatalog = Arrays.copyOf(properties, properties.length + 2);
+        withCatalog[properties.length] = "sfg.brewery.generator.enabled=true";
+        withCatalog[properties.length + 1] = "sfg.brewery.generator.row-count=" + catalogSize;
+        return start(withCatalog);
+    }
+}
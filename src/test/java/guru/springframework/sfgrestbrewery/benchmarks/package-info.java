@@ -0,0 +1,5 @@
+/**
+ * JMH benchmarks and the {@code BeerLoadIT} load test. Run a benchmark's {@code main} on the test classpath (from the
+ * IDE, or {@code java -cp ...} after {@code mvn test-compile}).
+ */
+package guru.springframework.sfgrestbrewery.benchmarks;
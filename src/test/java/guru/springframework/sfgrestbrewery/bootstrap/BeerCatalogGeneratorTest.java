@@ -0,0 +1,59 @@
+package guru.springframework.sfgrestbrewery.bootstrap;
+
+import guru.springframework.sfgrestbrewery.config.BeerBatchProperties;
+import guru.springframework.sfgrestbrewery.config.BeerGeneratorProperties;
+import guru.springframework.sfgrestbrewery.domain.Beer;
+import guru.springframework.sfgrestbrewery.web.model.v2.BeerStyleEnum;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The generated catalog, without a database: {@link BeerCatalogGenerator#generate()} only reads the properties.
+ */
+class BeerCatalogGeneratorTest {
+
+    @Test
+    void picksStylesInProportionToTheirWeights() {
+        BeerGeneratorProperties properties = properties(10_000);
+        properties.getStyleWeights().putAll(Map.of(BeerStyleEnum.IPA, 3, BeerStyleEnum.STOUT, 0, BeerStyleEnum.ALE, 1));
+
+        Map<BeerStyleEnum, Long> styles = generate(properties).stream()
+                .collect(Collectors.groupingBy(Beer::getBeerStyle, Collectors.counting()));
+
+        assertThat(styles).containsOnlyKeys(BeerStyleEnum.IPA, BeerStyleEnum.ALE);
+        assertThat(styles.get(BeerStyleEnum.IPA)).isBetween(7_200L, 7_800L);
+    }
+
+    @Test
+    void picksEveryStyleWithoutWeights() {
+        Map<BeerStyleEnum, Long> styles = generate(properties(10_000)).stream()
+                .collect(Collectors.groupingBy(Beer::getBeerStyle, Collectors.counting()));
+
+        assertThat(styles).containsOnlyKeys(BeerStyleEnum.values());
+    }
+
+    @Test
+    void generatesTheSameCatalogForTheSameSeed() {
+        BeerGeneratorProperties properties = properties(100);
+
+        Function<Beer, String> row = beer -> beer.getBeerName() + beer.getBeerStyle() + beer.getUpc() + beer.getPrice();
+        assertThat(generate(properties).stream().map(row))
+                .containsExactlyElementsOf(generate(properties).stream().map(row).collect(Collectors.toList()));
+    }
+
+    static BeerGeneratorProperties properties(int rowCount) {
+        BeerGeneratorProperties properties = new BeerGeneratorProperties();
+        properties.setRowCount(rowCount);
+        return properties;
+    }
+
+    static List<Beer> generate(BeerGeneratorProperties properties) {
+        return new BeerCatalogGenerator(null, properties, new BeerBatchProperties()).generate().collectList().block();
+    }
+}
@@ -0,0 +1,52 @@
+package guru.springframework.sfgrestbrewery.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Style weights that cannot be picked from fail at startup.
+ */
+class BeerGeneratorPropertiesTest {
+
+    final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(ValidationAutoConfiguration.class))
+            .withUserConfiguration(PropertiesConfig.class);
+
+    @Test
+    void acceptsWeightsWithSomeZeros() {
+        contextRunner.withPropertyValues("sfg.brewery.generator.style-weights.IPA=5",
+                        "sfg.brewery.generator.style-weights.STOUT=0")
+                .run(context -> assertThat(context).hasNotFailed());
+    }
+
+    @Test
+    void rejectsANegativeWeight() {
+        contextRunner.withPropertyValues("sfg.brewery.generator.style-weights.IPA=5",
+                        "sfg.brewery.generator.style-weights.STOUT=-1")
+                .run(context -> assertThat(context).getFailure().hasStackTraceContaining("styleWeights"));
+    }
+
+    @Test
+    void rejectsWeightsThatAreAllZero() {
+        contextRunner.withPropertyValues("sfg.brewery.generator.style-weights.IPA=0")
+                .run(context -> assertThat(context).getFailure().hasStackTraceContaining("must not all be zero"));
+    }
+
+    @Test
+    void rejectsWeightsAddingUpPastAnInt() {
+        contextRunner.withPropertyValues("sfg.brewery.generator.style-weights.IPA=" + Integer.MAX_VALUE,
+                        "sfg.brewery.generator.style-weights.STOUT=1")
+                .run(context -> assertThat(context).getFailure().hasStackTraceContaining("must not all be zero"));
+    }
+
+    @Configuration
+    @EnableConfigurationProperties(BeerGeneratorProperties.class)
+    static class PropertiesConfig {
+    }
+}
@@ -0,0 +1,56 @@
+package guru.springframework.sfgrestbrewery.config;
+
+import io.r2dbc.proxy.ProxyConnectionFactory;
+import io.r2dbc.proxy.core.QueryExecutionInfo;
+import io.r2dbc.proxy.core.QueryInfo;
+import io.r2dbc.proxy.listener.ProxyExecutionListener;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Records every statement the application sends, ahead of the pool and the metrics proxy beneath it. Import it
+ * into a test, {@link #clear()} before the call under test and read {@link #issued()} after it.
+ */
+@TestConfiguration
+public class StatementCaptureConfig {
+
+    private static final Queue<QueryInfo> ISSUED = new ConcurrentLinkedQueue<>();
+
+    public static void clear() {
+        ISSUED.clear();
+    }
+
+    /**
+     * The statements sent since the last {@link #clear()}, in the order they were sent.
+     */
+    public static List<QueryInfo> issued() {
+        return new ArrayList<>(ISSUED);
+    }
+
+    @Bean
+    static BeanPostProcessor capturingConnectionFactory() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof ConnectionFactory)) {
+                    return bean;
+                }
+                return ProxyConnectionFactory.builder((ConnectionFactory) bean)
+                        .listener(new ProxyExecutionListener() {
+                            @Override
+                            public void beforeQuery(QueryExecutionInfo execInfo) {
+                                ISSUED.addAll(execInfo.getQueries());
+                            }
+                        })
+                        .build();
+            }
+        };
+    }
+}
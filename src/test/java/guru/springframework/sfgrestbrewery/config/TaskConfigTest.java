@@ -0,0 +1,49 @@
+package guru.springframework.sfgrestbrewery.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The virtual thread executor, run on a plain executor since the test JVM may not have virtual threads.
+ */
+class TaskConfigTest {
+
+    @Test
+    void virtualThreadExecutorCountsRunningTasksAndShutsDownWithTheContext() throws Exception {
+        ExecutorService executorService = Executors.newCachedThreadPool();
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        TaskConfig.VirtualThreadTaskExecutor executor = new TaskConfig.VirtualThreadTaskExecutor(executorService, meterRegistry);
+
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(() -> {
+            running.countDown();
+            await(release);
+        });
+        assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(meterRegistry.get("executor.active").tag("name", "taskExecutor").gauge().value()).isEqualTo(1);
+        release.countDown();
+
+        executor.destroy();
+
+        assertThat(executorService.isShutdown()).isTrue();
+        assertThat(executorService.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(meterRegistry.get("executor.active").tag("name", "taskExecutor").gauge().value()).isZero();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
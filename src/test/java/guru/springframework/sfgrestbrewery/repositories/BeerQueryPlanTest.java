@@ -0,0 +1,268 @@
+package guru.springframework.sfgrestbrewery.repositories;
+
+import guru.springframework.sfgrestbrewery.config.StatementCaptureConfig;
+import guru.springframework.sfgrestbrewery.services.BeerService;
+import guru.springframework.sfgrestbrewery.web.model.BeerCursor;
+import guru.springframework.sfgrestbrewery.web.model.BeerCursorPage;
+import guru.springframework.sfgrestbrewery.web.model.BeerDto;
+import guru.springframework.sfgrestbrewery.web.model.BeerField;
+import guru.springframework.sfgrestbrewery.web.model.v2.BeerStyleEnum;
+import io.r2dbc.proxy.core.Binding;
+import io.r2dbc.proxy.core.BoundValue;
+import io.r2dbc.proxy.core.QueryInfo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import reactor.core.publisher.Flux;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives BeerService, captures the statements it sends to the database, and runs EXPLAIN on each of them with
+ * the values it bound. Fails if H2 would answer any of them with a table scan, so a change to the SQL the
+ * service builds is checked as it is. Unfiltered offset pages and the unfiltered COUNT read the whole table by
+ * definition and are not covered.
+ */
+@SpringBootTest
+@ActiveProfiles("functional")
+@Import(StatementCaptureConfig.class)
+class BeerQueryPlanTest {
+
+    private static final String TABLE_SCAN = "tableScan";
+
+    @Autowired
+    BeerService beerService;
+
+    @Autowired
+    DatabaseClient databaseClient;
+
+    String name;
+    String upc;
+    Integer id;
+    Integer otherId;
+
+    @BeforeEach
+    void setUp() {
+        name = "Plan " + UUID.randomUUID();
+        upc = name.substring(5, 25);
+        id = insert(name, BeerStyleEnum.STOUT, upc);
+        otherId = insert(name, BeerStyleEnum.STOUT, upc + "x");
+        // nothing the service caches about these beers exists yet, so every read goes to the database
+        StatementCaptureConfig.clear();
+    }
+
+    @Test
+    void findById() {
+        beerService.getById(id, false).block();
+
+        assertThat(explainIssued(select())).allSatisfy(plan -> assertThat(plan)
+                .doesNotContain(TABLE_SCAN)
+                .contains("PRIMARY_KEY"));
+    }
+
+    @Test
+    void findByIdsWithAnInList() {
+        beerService.getByIds(List.of(id, otherId, -1), false).block();
+
+        assertThat(explainIssued(select().and(sql -> sql.contains(" IN ")))).allSatisfy(plan -> assertThat(plan)
+                .doesNotContain(TABLE_SCAN)
+                .contains("PRIMARY_KEY"));
+    }
+
+    @Test
+    void findByUpc() {
+        beerService.getByUpc(upc).block();
+        beerService.getByUpcs(List.of(upc + "x", "none")).block();
+
+        assertThat(explainIssued(select().and(sql -> sql.contains("upc")))).allSatisfy(plan -> assertThat(plan)
+                .doesNotContain(TABLE_SCAN)
+                .contains("BEER_UPC_UIDX"));
+    }
+
+    @Test
+    void listBeersByName() {
+        beerService.listBeers(name, null, PageRequest.of(0, 25), false).block();
+
+        assertThat(explainIssued(select())).hasSize(2).allSatisfy(plan -> assertThat(plan)
+                .doesNotContain(TABLE_SCAN)
+                .contains("BEER_NAME_IDX"));
+    }
+
+    @Test
+    void listBeersByStyle() {
+        beerService.listBeers(null, BeerStyleEnum.STOUT, PageRequest.of(0, 25), false).block();
+
+        assertThat(explainIssued(select())).allSatisfy(plan -> assertThat(plan)
+                .doesNotContain(TABLE_SCAN)
+                .contains("BEER_STYLE_NAME_IDX"));
+    }
+
+    @Test
+    void listBeersByNameAndStyle() {
+        beerService.listBeers(name, BeerStyleEnum.STOUT, PageRequest.of(0, 25), false).block();
+
+        assertThat(explainIssued(select())).hasSize(2).allSatisfy(plan -> assertThat(plan)
+                .doesNotContain(TABLE_SCAN));
+    }
+
+    @Test
+    void projectsTheRequestedColumns() {
+        EnumSet<BeerField> fields = EnumSet.of(BeerField.ID, BeerField.BEER_NAME, BeerField.LAST_UPDATED_DATE);
+        beerService.getById(id, false, fields).block();
+        beerService.listBeers(name, null, PageRequest.of(0, 25), false, fields).block();
+        beerService.listBeersByCursor(name, null, BeerCursor.SortKey.BEER_NAME, "", 1, false, fields).block();
+
+        List<String> statements = issued(select().and(sql -> !sql.contains("COUNT")));
+        assertThat(statements).hasSize(3).allSatisfy(sql -> assertThat(sql)
+                .contains("last_modified_date")
+                .doesNotContain("price", "upc", "quantity_on_hand"));
+        assertThat(explainIssued(select())).allSatisfy(plan -> assertThat(plan).doesNotContain(TABLE_SCAN));
+    }
+
+    @Test
+    void seekById() {
+        BeerCursorPage first = beerService.listBeersByCursor(null, null, BeerCursor.SortKey.ID, "", 25, false).block();
+        StatementCaptureConfig.clear();
+        beerService.listBeersByCursor(null, null, BeerCursor.SortKey.ID, first.getNextCursor(), 25, false).block();
+
+        assertThat(explainIssued(select())).allSatisfy(plan -> assertThat(plan)
+                .doesNotContain(TABLE_SCAN)
+                .contains("PRIMARY_KEY"));
+    }
+
+    @Test
+    void seekByName() {
+        BeerCursorPage first = beerService.listBeersByCursor(null, null, BeerCursor.SortKey.BEER_NAME, "", 1, false).block();
+        StatementCaptureConfig.clear();
+        beerService.listBeersByCursor(null, null, BeerCursor.SortKey.BEER_NAME, first.getNextCursor(), 1, false).block();
+
+        assertThat(explainIssued(select())).allSatisfy(plan -> assertThat(plan)
+                .doesNotContain(TABLE_SCAN)
+                .contains("BEER_NAME_IDX"));
+    }
+
+    @Test
+    void seekPastAnUnnamedBeer() {
+        String cursor = new BeerCursor(BeerCursor.SortKey.BEER_NAME, id, null).encode();
+        // a page larger than the unnamed beers, so the named ones are read too
+        beerService.listBeersByCursor(null, null, BeerCursor.SortKey.BEER_NAME, cursor, 1_000, false).block();
+        beerService.listBeersByCursor(null, BeerStyleEnum.STOUT, BeerCursor.SortKey.BEER_NAME, cursor, 1_000, false).block();
+
+        assertThat(explainIssued(select())).hasSize(4).allSatisfy(plan -> assertThat(plan)
+                .doesNotContain(TABLE_SCAN)
+                .containsPattern("BEER_(STYLE_)?NAME_IDX"));
+    }
+
+    @Test
+    void seekByNameWithinStyle() {
+        BeerCursorPage first = beerService.listBeersByCursor(null, BeerStyleEnum.STOUT, BeerCursor.SortKey.BEER_NAME, "", 1, false)
+                .block();
+        StatementCaptureConfig.clear();
+        beerService.listBeersByCursor(null, BeerStyleEnum.STOUT, BeerCursor.SortKey.BEER_NAME, first.getNextCursor(), 1, false)
+                .block();
+
+        assertThat(explainIssued(select())).allSatisfy(plan -> assertThat(plan)
+                .doesNotContain(TABLE_SCAN)
+                .contains("BEER_STYLE_NAME_IDX"));
+    }
+
+    @Test
+    void conditionalUpdate() {
+        beerService.updateBeer(id, BeerDto.builder()
+                .beerName(name + " renamed")
+                .beerStyle("STOUT")
+                .upc(upc)
+                .price(new BigDecimal("9.99"))
+                .version(0L)
+                .build()).block();
+
+        assertThat(explainIssued(update())).hasSize(1).allSatisfy(plan -> assertThat(plan)
+                .doesNotContain(TABLE_SCAN)
+                .contains("PRIMARY_KEY"));
+    }
+
+    @Test
+    void syncReadsByUpcAndUpdatesByIdAndVersion() {
+        beerService.syncBeers(Flux.just(BeerDto.builder()
+                .beerName(name + " synced")
+                .beerStyle("STOUT")
+                .upc(upc)
+                .price(new BigDecimal("10.99"))
+                .build())).block();
+
+        assertThat(explainIssued(select())).hasSize(1).allSatisfy(plan -> assertThat(plan)
+                .doesNotContain(TABLE_SCAN)
+                .contains("BEER_UPC_UIDX"));
+        assertThat(explainIssued(update())).hasSize(1).allSatisfy(plan -> assertThat(plan)
+                .doesNotContain(TABLE_SCAN)
+                .contains("PRIMARY_KEY"));
+    }
+
+    private Integer insert(String beerName, BeerStyleEnum beerStyle, String beerUpc) {
+        return databaseClient.sql("INSERT INTO beer (beer_name, beer_style, upc, version, quantity_on_hand, price, " +
+                        "created_date, last_modified_date) VALUES (:name, :style, :upc, 0, 10, 9.99, NOW(), NOW())")
+                .bind("name", beerName)
+                .bind("style", beerStyle.name())
+                .bind("upc", beerUpc)
+                .filter(statement -> statement.returnGeneratedValues("id"))
+                .map(row -> row.get("id", Integer.class))
+                .one()
+                .block();
+    }
+
+    private static Predicate<String> select() {
+        return sql -> sql.startsWith("SELECT") && sql.contains("beer");
+    }
+
+    private static Predicate<String> update() {
+        return sql -> sql.startsWith("UPDATE beer");
+    }
+
+    private static List<String> issued(Predicate<String> filter) {
+        List<String> statements = new ArrayList<>();
+        StatementCaptureConfig.issued().forEach(query -> {
+            if (filter.test(query.getQuery())) {
+                statements.add(query.getQuery());
+            }
+        });
+        return statements;
+    }
+
+    /**
+     * Plans of the captured statements matching {@code filter}, each explained with its first set of binds.
+     */
+    private List<String> explainIssued(Predicate<String> filter) {
+        List<String> plans = new ArrayList<>();
+        for (QueryInfo query : StatementCaptureConfig.issued()) {
+            if (filter.test(query.getQuery())) {
+                plans.add(explain(query));
+            }
+        }
+        assertThat(plans).as("statements issued").isNotEmpty();
+        return plans;
+    }
+
+    private String explain(QueryInfo query) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql("EXPLAIN " + query.getQuery());
+        if (!query.getBindingsList().isEmpty()) {
+            for (Binding binding : query.getBindingsList().get(0).getIndexBindings()) {
+                int index = (Integer) binding.getKey();
+                BoundValue value = binding.getBoundValue();
+                spec = value.isNull() ? spec.bindNull(index, value.getNullType()) : spec.bind(index, value.getValue());
+            }
+        }
+        return spec.map(row -> row.get(0, String.class)).one().block();
+    }
+}
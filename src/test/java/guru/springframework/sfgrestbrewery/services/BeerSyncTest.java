@@ -0,0 +1,163 @@
+package guru.springframework.sfgrestbrewery.services;
+
+import guru.springframework.sfgrestbrewery.domain.Beer;
+import guru.springframework.sfgrestbrewery.repositories.BeerRepository;
+import guru.springframework.sfgrestbrewery.web.model.BeerDto;
+import guru.springframework.sfgrestbrewery.web.model.BeerSyncResult;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import reactor.core.publisher.Flux;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.reset;
+
+/**
+ * {@link BeerService#syncBeers} against the database: which rows it writes, which columns, and what happens when a
+ * row changes between the sync reading it and writing it.
+ */
+@SpringBootTest
+@ActiveProfiles("functional")
+class BeerSyncTest {
+
+    @Autowired
+    BeerService beerService;
+
+    @Autowired
+    BeerRepository beerRepository;
+
+    @Autowired
+    DatabaseClient databaseClient;
+
+    @Test
+    void insertsNewBeers() {
+        String upc = newUpc();
+
+        BeerSyncResult result = sync(beer(upc, "Sync Insert", "IPA", "9.99"));
+
+        assertThat(result.getInserted()).isEqualTo(1);
+        assertThat(result.getRejected()).isEmpty();
+        Beer stored = beerRepository.findByUpc(upc).block();
+        assertThat(stored.getBeerName()).isEqualTo("Sync Insert");
+        assertThat(stored.getVersion()).isZero();
+        assertThat(stored.getQuantityOnHand()).isEqualTo(12);
+    }
+
+    @Test
+    void updatesOnlyTheSyncedColumns() {
+        String upc = newUpc();
+        sync(beer(upc, "Sync Update", "IPA", "9.99"));
+        Beer before = beerRepository.findByUpc(upc).block();
+        databaseClient.sql("UPDATE beer SET quantity_on_hand = 500 WHERE id = :id").bind("id", before.getId())
+                .fetch().rowsUpdated().block();
+
+        BeerSyncResult result = sync(beer(upc, "Sync Updated", "LAGER", "10.50"));
+
+        assertThat(result.getUpdated()).isEqualTo(1);
+        assertThat(result.getRejected()).isEmpty();
+        Beer after = beerRepository.findByUpc(upc).block();
+        assertThat(after.getBeerName()).isEqualTo("Sync Updated");
+        assertThat(after.getBeerStyle().name()).isEqualTo("LAGER");
+        assertThat(after.getPrice()).isEqualByComparingTo("10.50");
+        assertThat(after.getVersion()).isEqualTo(before.getVersion() + 1);
+        assertThat(after.getQuantityOnHand()).isEqualTo(500);
+        assertThat(after.getCreatedDate()).isEqualTo(before.getCreatedDate());
+    }
+
+    @Test
+    void leavesUnchangedBeersAlone() {
+        String upc = newUpc();
+        sync(beer(upc, "Sync Unchanged", "IPA", "9.99"));
+        Beer before = beerRepository.findByUpc(upc).block();
+
+        BeerSyncResult result = sync(beer(upc, "Sync Unchanged", "IPA", "9.990"));
+
+        assertThat(result.getUnchanged()).isEqualTo(1);
+        assertThat(result.getUpdated()).isZero();
+        Beer after = beerRepository.findByUpc(upc).block();
+        assertThat(after.getVersion()).isEqualTo(before.getVersion());
+        assertThat(after.getLastModifiedDate()).isEqualTo(before.getLastModifiedDate());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void rejectsBeersChangedSinceTheyWereRead() {
+        String conflictUpc = newUpc();
+        String otherUpc = newUpc();
+        sync(beer(conflictUpc, "Sync Conflict", "IPA", "9.99"), beer(otherUpc, "Sync Other", "IPA", "9.99"));
+
+        // another writer renames the beer after the sync has read it, but before the sync writes it
+        Answer<?> repository = mockingDetails(beerRepository).getMockCreationSettings().getDefaultAnswer();
+        doAnswer(invocation -> ((Flux<Beer>) repository.answer(invocation)).collectList()
+                .flatMapMany(read -> databaseClient
+                        .sql("UPDATE beer SET beer_name = 'Renamed Meanwhile', version = version + 1 WHERE upc = :upc")
+                        .bind("upc", conflictUpc)
+                        .fetch().rowsUpdated()
+                        .thenMany(Flux.fromIterable(read))))
+                .when(beerRepository).findAllByUpcIn(any(Collection.class));
+        try {
+            BeerSyncResult result = sync(beer(conflictUpc, "Sync Conflict 2", "IPA", "9.99"),
+                    beer(otherUpc, "Sync Other 2", "IPA", "9.99"));
+
+            assertThat(result.getUpdated()).isEqualTo(1);
+            assertThat(result.getRejected()).hasSize(1);
+            assertThat(result.getRejected().get(0).getIndex()).isZero();
+            assertThat(result.getRejected().get(0).getErrors()).singleElement().asString().startsWith("version :");
+        } finally {
+            reset(beerRepository);
+        }
+
+        assertThat(beerRepository.findByUpc(conflictUpc).block().getBeerName()).isEqualTo("Renamed Meanwhile");
+        assertThat(beerRepository.findByUpc(otherUpc).block().getBeerName()).isEqualTo("Sync Other 2");
+    }
+
+    /**
+     * Spring Data's repository is a final JDK proxy, so it is wrapped in a mock of the interface instead of spied.
+     */
+    @TestConfiguration
+    static class RepositoryConfig {
+
+        @Bean
+        static BeanPostProcessor delegatingBeerRepository() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof BeerRepository ? mock(BeerRepository.class, delegatesTo(bean)) : bean;
+                }
+            };
+        }
+    }
+
+    private BeerSyncResult sync(BeerDto... beers) {
+        return beerService.syncBeers(Flux.just(beers)).block();
+    }
+
+    private static String newUpc() {
+        return UUID.randomUUID().toString().substring(0, 20);
+    }
+
+    private static BeerDto beer(String upc, String name, String style, String price) {
+        return BeerDto.builder()
+                .beerName(name)
+                .beerStyle(style)
+                .upc(upc)
+                .price(new BigDecimal(price))
+                .quantityOnHand(12)
+                .build();
+    }
+}
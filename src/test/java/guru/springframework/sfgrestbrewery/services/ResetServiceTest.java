@@ -0,0 +1,40 @@
+package guru.springframework.sfgrestbrewery.services;
+
+import guru.springframework.sfgrestbrewery.bootstrap.BeerLoader;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("functional")
+class ResetServiceTest {
+
+    @Autowired
+    ResetService resetService;
+
+    @Autowired
+    BeerLoader beerLoader;
+
+    @Autowired
+    DatabaseClient databaseClient;
+
+    @Test
+    void reseedsTheInitialBeersWithIdsFromOne() {
+        databaseClient.sql("INSERT INTO beer (beer_name, beer_style, upc, version) VALUES ('Reset Me', 'IPA', 'reset-me', 0)")
+                .fetch().rowsUpdated().block();
+
+        assertThat(resetService.resetBeers().block()).isEqualTo(beerLoader.initialBeers().size());
+
+        Map<String, Object> ids = databaseClient.sql("SELECT MIN(id) AS min_id, MAX(id) AS max_id, COUNT(*) AS beers FROM beer")
+                .fetch().one().block();
+        assertThat(((Number) ids.get("min_id")).intValue()).isEqualTo(1);
+        assertThat(((Number) ids.get("max_id")).intValue()).isEqualTo(beerLoader.initialBeers().size());
+        assertThat(((Number) ids.get("beers")).intValue()).isEqualTo(beerLoader.initialBeers().size());
+    }
+}
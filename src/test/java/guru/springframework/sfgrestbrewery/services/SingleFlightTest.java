@@ -0,0 +1,71 @@
+package guru.springframework.sfgrestbrewery.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.function.Tuple2;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    final SingleFlight<Integer, String> singleFlight = new SingleFlight<>("test", new SimpleMeterRegistry());
+
+    @Test
+    void sharesALoadInFlight() {
+        AtomicInteger loads = new AtomicInteger();
+        Sinks.One<String> result = Sinks.one();
+
+        CompletableFuture<Tuple2<String, String>> both = Mono.zip(
+                singleFlight.execute(1, () -> {
+                    loads.incrementAndGet();
+                    return result.asMono();
+                }),
+                singleFlight.execute(1, () -> {
+                    loads.incrementAndGet();
+                    return Mono.just("second");
+                })).toFuture();
+        result.tryEmitValue("first");
+
+        Tuple2<String, String> values = Mono.fromFuture(both).block(TIMEOUT);
+        assertThat(values.getT1()).isEqualTo("first");
+        assertThat(values.getT2()).isEqualTo("first");
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void loadsAgainOnceALoadHasCompleted() {
+        assertThat(singleFlight.execute(1, () -> Mono.just("first")).block(TIMEOUT)).isEqualTo("first");
+        assertThat(singleFlight.execute(1, () -> Mono.just("second")).block(TIMEOUT)).isEqualTo("second");
+    }
+
+    @Test
+    void releasesTheKeyWhenTheLoaderThrows() {
+        assertThatThrownBy(() -> singleFlight.execute(1, () -> {
+            throw new IllegalStateException("boom");
+        }).block(TIMEOUT)).hasMessage("boom");
+
+        assertThat(singleFlight.execute(1, () -> Mono.just("recovered")).block(TIMEOUT)).isEqualTo("recovered");
+    }
+
+    @Test
+    void releasesTheKeyWhenTheLoadFails() {
+        assertThatThrownBy(() -> singleFlight.execute(1, () -> Mono.<String>error(new IllegalStateException("boom")))
+                .block(TIMEOUT)).hasMessage("boom");
+
+        assertThat(singleFlight.execute(1, () -> Mono.just("recovered")).block(TIMEOUT)).isEqualTo("recovered");
+    }
+
+    @Test
+    void completesEmptyWhenTheLoadIsEmpty() {
+        assertThat(singleFlight.execute(1, Mono::empty).block(TIMEOUT)).isNull();
+    }
+}
@@ -0,0 +1,204 @@
+package guru.springframework.sfgrestbrewery.web.codec;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import guru.springframework.sfgrestbrewery.web.model.BeerDto;
+import guru.springframework.sfgrestbrewery.web.model.BeerPagedList;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * {@link BeerJsonModule} against the default mapper, both configured the way Boot configures the application's.
+ */
+class BeerJsonModuleTest {
+
+    final ObjectMapper defaultMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    final ObjectMapper leanMapper = defaultMapper.copy().registerModule(new BeerJsonModule());
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 100_000_000, 120_000_000, 123_456_000, 123_456_789, 999_999_999})
+    void writesBeersByteForByteLikeTheDefaultMapper(int nanos) throws Exception {
+        BeerDto beer = beer(LocalDateTime.of(2021, 3, 7, 9, 5, 0, nanos));
+
+        assertThat(leanMapper.writeValueAsString(beer)).isEqualTo(defaultMapper.writeValueAsString(beer));
+    }
+
+    @Test
+    void writesNullFieldsLikeTheDefaultMapper() throws Exception {
+        BeerDto beer = new BeerDto();
+
+        assertThat(leanMapper.writeValueAsString(beer)).isEqualTo(defaultMapper.writeValueAsString(beer));
+    }
+
+    @Test
+    void writesYearsOutsideFourDigitsLikeTheDefaultMapper() throws Exception {
+        BeerDto beer = beer(LocalDateTime.of(12021, 3, 7, 9, 5, 30, 500));
+
+        assertThat(leanMapper.writeValueAsString(beer)).isEqualTo(defaultMapper.writeValueAsString(beer));
+    }
+
+    @Test
+    void roundTripsBeers() throws Exception {
+        BeerDto beer = beer(LocalDateTime.of(2021, 3, 7, 23, 59, 59, 120_000_000));
+
+        assertThat(leanMapper.readValue(leanMapper.writeValueAsBytes(beer), BeerDto.class)).isEqualTo(beer);
+        assertThat(leanMapper.readValue(defaultMapper.writeValueAsBytes(beer), BeerDto.class)).isEqualTo(beer);
+    }
+
+    @Test
+    void roundTripsPagesInEitherShape() throws Exception {
+        BeerPagedList page = new BeerPagedList(List.of(beer(LocalDateTime.of(2021, 3, 7, 12, 0)), new BeerDto()),
+                PageRequest.of(2, 2), 41);
+
+        for (byte[] json : List.of(leanMapper.writeValueAsBytes(page), defaultMapper.writeValueAsBytes(page))) {
+            BeerPagedList read = leanMapper.readValue(json, BeerPagedList.class);
+
+            assertThat(read.getContent()).isEqualTo(page.getContent());
+            assertThat(read.getNumber()).isEqualTo(2);
+            assertThat(read.getSize()).isEqualTo(2);
+            assertThat(read.getTotalElements()).isEqualTo(41);
+        }
+    }
+
+    @Test
+    void writesPagesWithoutThePageableAndSortTrees() throws Exception {
+        BeerPagedList page = new BeerPagedList(List.of(beer(LocalDateTime.of(2021, 3, 7, 12, 0)), new BeerDto()),
+                PageRequest.of(2, 2), 41);
+
+        JsonNode lean = defaultMapper.readTree(leanMapper.writeValueAsBytes(page));
+        JsonNode full = defaultMapper.readTree(defaultMapper.writeValueAsBytes(page));
+
+        assertThat(lean.has("pageable")).isFalse();
+        assertThat(lean.has("sort")).isFalse();
+        ((ObjectNode) full).remove(List.of("pageable", "sort"));
+        assertThat(lean).isEqualTo(full);
+    }
+
+    @Test
+    void skipsUnknownFieldsWhateverTheirShape() throws Exception {
+        BeerDto read = leanMapper.readValue("{\"extra\": {\"beerName\": \"Injected\", \"a\": [1, {}]}, \"beerName\": \"Real\", " +
+                "\"more\": [[\"upc\"]], \"upc\": \"123\"}", BeerDto.class);
+
+        assertThat(read.getBeerName()).isEqualTo("Real");
+        assertThat(read.getUpc()).isEqualTo("123");
+    }
+
+    @Test
+    void readsScalarsTheDefaultMapperCoerces() throws Exception {
+        String json = "{\"id\": \"7\", \"version\": \"3\", \"beerName\": 42, \"price\": \"12.50\", \"quantityOnHand\": \"\"}";
+
+        assertThat(leanMapper.readValue(json, BeerDto.class)).isEqualTo(defaultMapper.readValue(json, BeerDto.class));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "{\"beerName\": {\"beerName\": \"Injected\", \"beerStyle\": \"IPA\"}, \"beerStyle\": \"LAGER\", \"upc\": \"999000111\"}",
+            "{\"upc\": [\"1\", \"2\"]}",
+            "{\"id\": {}}",
+            "{\"price\": [1]}",
+            "{\"createdDate\": {\"year\": 2021}}"})
+    void rejectsObjectsAndArraysInScalarFields(String json) {
+        assertThatThrownBy(() -> defaultMapper.readValue(json, BeerDto.class)).isInstanceOf(MismatchedInputException.class);
+        assertThatThrownBy(() -> leanMapper.readValue(json, BeerDto.class)).isInstanceOf(MismatchedInputException.class);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "{\"quantityOnHand\": \"lots\"}",
+            "{\"id\": \"seven\"}",
+            "{\"version\": \"v3\"}",
+            "{\"price\": \"cheap\"}",
+            "{\"createdDate\": \"yesterday\"}",
+            "{\"createdDate\": \"2021-13-07T12:00:00\"}",
+            "{\"createdDate\": \"2021-02-30T12:00:00\"}"})
+    void rejectsScalarsThatDoNotParse(String json) {
+        assertThatThrownBy(() -> defaultMapper.readValue(json, BeerDto.class)).isInstanceOf(InvalidFormatException.class);
+        assertThatThrownBy(() -> leanMapper.readValue(json, BeerDto.class)).isInstanceOf(InvalidFormatException.class);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "{\"content\": {\"id\": 1}, \"number\": 0, \"size\": 1}",
+            "{\"content\": [], \"number\": {\"value\": 1}, \"size\": 1}",
+            "{\"content\": [], \"number\": 0, \"size\": [1]}",
+            "{\"content\": [], \"number\": 0, \"size\": \"many\"}",
+            "{\"content\": [[]], \"number\": 0, \"size\": 1}"})
+    void rejectsPagesOfTheWrongShape(String json) {
+        assertThatThrownBy(() -> leanMapper.readValue(json, BeerPagedList.class)).isInstanceOf(JsonMappingException.class);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "2021-03-07T12:00",
+            "2021-03-07T12:00:59",
+            "2021-03-07T12:00:59.1",
+            "2021-03-07T12:00:59.12",
+            "2021-03-07T12:00:59.123",
+            "2021-03-07T12:00:59.1234",
+            "2021-03-07T12:00:59.12345",
+            "2021-03-07T12:00:59.123456",
+            "2021-03-07T12:00:59.1234567",
+            "2021-03-07T12:00:59.12345678",
+            "2021-03-07T12:00:59.123456789",
+            "0000-01-01T00:00:00.000000001"})
+    void parsesLikeTheIsoFormatter(String text) {
+        assertThat(BeerJsonModule.parseDateTime(text.toCharArray(), 0, text.length()))
+                .isEqualTo(LocalDateTime.parse(text, DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "2021-03-07", "2021-03-07 12:00:00", "2021-03-07T12", "2021-03-07T12:00:", "2021-03-07T12:00:5",
+            "2021-03-07T12:00:59.", "2021-03-07T12:00:59,5", "2021-03-07T12:00:59.1234567890", "2021-3-07T12:00:00",
+            "2021-03-07T12:00:00Z", "+2021-03-07T12:00", "2021-0a-07T12:00:00"})
+    void leavesOtherTextToTheFormatter(String text) {
+        assertThat(BeerJsonModule.parseDateTime(text.toCharArray(), 0, text.length())).isNull();
+    }
+
+    @Test
+    void failsOnOutOfRangeFieldsLikeTheFormatter() {
+        String text = "2021-03-07T24:00:00";
+
+        assertThatThrownBy(() -> BeerJsonModule.parseDateTime(text.toCharArray(), 0, text.length()))
+                .isInstanceOf(DateTimeException.class);
+    }
+
+    @Test
+    void parsesFromAnOffsetInsideTheBuffer() {
+        char[] buffer = "xx\"2021-03-07T12:00:59.5\"yy".toCharArray();
+
+        assertThat(BeerJsonModule.parseDateTime(buffer, 3, 21)).isEqualTo(LocalDateTime.of(2021, 3, 7, 12, 0, 59, 500_000_000));
+    }
+
+    private static BeerDto beer(LocalDateTime createdDate) {
+        return BeerDto.builder()
+                .id(12)
+                .version(3L)
+                .beerName("Mango \"Bobs\" é")
+                .beerStyle("IPA")
+                .upc("0631234200036")
+                .price(new BigDecimal("12.95"))
+                .quantityOnHand(144)
+                .createdDate(createdDate)
+                .lastUpdatedDate(createdDate.plusDays(1).plusNanos(7))
+                .build();
+    }
+}
@@ -0,0 +1,154 @@
+package guru.springframework.sfgrestbrewery.web.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Bulk create on both APIs: every item gets an id or its errors, in request order.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureWebTestClient
+@ActiveProfiles("functional")
+class BeerBatchCreateTest {
+
+    @Autowired
+    WebTestClient webTestClient;
+
+    @Autowired
+    DatabaseClient databaseClient;
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/api/v1", "/api/v2"})
+    void insertsValidItemsAndReportsInvalidOnes(String api) {
+        String upc = newUpc();
+        List<Map<String, Object>> beers = List.of(
+                beer("Batch 1", upc),
+                Map.of("beerName", "", "beerStyle", "IPA"),
+                beer("Batch 3", null),
+                Map.of("beerName", "Batch 4", "beerStyle", "MEAD"),
+                Map.of("id", 5, "beerName", "Batch 5", "beerStyle", "IPA"));
+
+        JsonNode results = post(api, beers);
+
+        assertThat(results).hasSize(5);
+        assertThat(indexes(results)).containsExactly(0, 1, 2, 3, 4);
+        assertInserted(results.get(0), "Batch 1");
+        assertRejected(results.get(1), "beerName");
+        assertInserted(results.get(2), "Batch 3");
+        assertRejected(results.get(3), "beerStyle");
+        assertRejected(results.get(4), "id");
+        assertThat(results.get(2).get("id").asInt()).isGreaterThan(results.get(0).get("id").asInt());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/api/v1", "/api/v2"})
+    void rejectsUpcsTakenInTheRequestOrTheCatalog(String api) {
+        String taken = newUpc();
+        post(api, List.of(beer("Batch Taken", taken)));
+        String duplicated = newUpc();
+
+        JsonNode results = post(api, List.of(beer("Batch A", duplicated), beer("Batch B", duplicated),
+                beer("Batch C", taken)));
+
+        assertInserted(results.get(0), "Batch A");
+        assertThat(results.get(1).get("errors").toString()).contains("upc : duplicated in request");
+        assertThat(results.get(2).get("errors").toString()).contains("upc : already exists");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/api/v1", "/api/v2"})
+    void acceptsAnNdjsonStream(String api) {
+        String body = beerJson("Batch Stream 1") + "\n" + beerJson("Batch Stream 2") + "\n";
+
+        JsonNode results = webTestClient.post().uri(api + "/beer/batch")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .bodyValue(body)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(JsonNode.class)
+                .returnResult().getResponseBody();
+
+        assertThat(results).hasSize(2);
+        assertInserted(results.get(0), "Batch Stream 1");
+        assertInserted(results.get(1), "Batch Stream 2");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/api/v1", "/api/v2"})
+    void keepsRequestOrderAcrossStatementBatches(String api) {
+        // sfg.brewery.beer-batch.batch-size defaults to 500
+        List<Map<String, Object>> beers = IntStream.range(0, 501)
+                .mapToObj(i -> i == 250 ? Map.<String, Object>of("beerStyle", "IPA") : beer("Batch Many " + i, newUpc()))
+                .collect(Collectors.toList());
+
+        JsonNode results = post(api, beers);
+
+        assertThat(results).hasSize(501);
+        assertThat(indexes(results)).isSorted().hasSize(501);
+        assertRejected(results.get(250), "beerName");
+        assertInserted(results.get(500), "Batch Many 500");
+    }
+
+    JsonNode post(String api, List<Map<String, Object>> beers) {
+        return webTestClient.post().uri(api + "/beer/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .bodyValue(beers)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(JsonNode.class)
+                .returnResult().getResponseBody();
+    }
+
+    void assertInserted(JsonNode result, String beerName) {
+        assertThat(result.has("errors") && !result.get("errors").isNull()).as("errors of %s", result).isFalse();
+        Map<String, Object> stored = databaseClient.sql("SELECT beer_name, version FROM beer WHERE id = :id")
+                .bind("id", result.get("id").asInt())
+                .fetch().one().block();
+        assertThat(stored.get("beer_name")).isEqualTo(beerName);
+        assertThat(stored.get("version")).isEqualTo(0);
+    }
+
+    static void assertRejected(JsonNode result, String field) {
+        assertThat(result.get("id").isNull()).isTrue();
+        assertThat(result.get("errors").toString()).contains(field + " : ");
+    }
+
+    static List<Integer> indexes(JsonNode results) {
+        List<Integer> indexes = new ArrayList<>();
+        results.forEach(result -> indexes.add(result.get("index").asInt()));
+        return indexes;
+    }
+
+    static Map<String, Object> beer(String name, String upc) {
+        return upc == null
+                ? Map.of("beerName", name, "beerStyle", "IPA", "price", 9.99)
+                : Map.of("beerName", name, "beerStyle", "IPA", "upc", upc, "price", 9.99);
+    }
+
+    static String beerJson(String name) {
+        return "{\"beerName\": \"" + name + "\", \"beerStyle\": \"IPA\", \"upc\": \"" + newUpc() + "\"}";
+    }
+
+    static String newUpc() {
+        return UUID.randomUUID().toString().substring(0, 20);
+    }
+}
@@ -0,0 +1,113 @@
+package guru.springframework.sfgrestbrewery.web.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Every beer route answers JSON to a JSON or wildcard Accept, whatever binary codecs are registered; the streamed
+ * exports answer NDJSON to a wildcard. CBOR is only written when it is asked for by name.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureWebTestClient
+@ActiveProfiles("functional")
+class BeerContentNegotiationTest {
+
+    @Autowired
+    WebTestClient webTestClient;
+
+    JsonNode beer;
+
+    @BeforeEach
+    void setUp() {
+        beer = webTestClient.get().uri("/api/v1/beer?pageSize=1")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(JsonNode.class)
+                .returnResult().getResponseBody()
+                .get("content").get(0);
+    }
+
+    // rejected item by item, so nothing is written
+    static final String INVALID_BEERS = "[{\"beerName\": \"\"}]";
+
+    static Stream<Arguments> routes() {
+        return Stream.of("application/json", "*/*").flatMap(accept -> Stream.of(
+                Arguments.of(accept, HttpMethod.GET, "/api/v1/beer", null),
+                Arguments.of(accept, HttpMethod.GET, "/api/v1/beer?cursor=", null),
+                Arguments.of(accept, HttpMethod.GET, "/api/v1/beer?ids={id},-1", null),
+                Arguments.of(accept, HttpMethod.GET, "/api/v1/beerUpc?upcs={upc},none", null),
+                Arguments.of(accept, HttpMethod.GET, "/api/v1/beer/{id}", null),
+                Arguments.of(accept, HttpMethod.GET, "/api/v1/beerUpc/{upc}", null),
+                Arguments.of(accept, HttpMethod.POST, "/api/v1/beer/batch", INVALID_BEERS),
+                Arguments.of(accept, HttpMethod.POST, "/api/v1/beer/sync", INVALID_BEERS),
+                Arguments.of(accept, HttpMethod.DELETE, "/api/v1/beer?ids=-1", null),
+                Arguments.of(accept, HttpMethod.GET, "/api/v2/beer", null),
+                Arguments.of(accept, HttpMethod.GET, "/api/v2/beer?ids={id},-1", null),
+                Arguments.of(accept, HttpMethod.GET, "/api/v2/beerUpc?upcs={upc},none", null),
+                Arguments.of(accept, HttpMethod.GET, "/api/v2/beer/{id}", null),
+                Arguments.of(accept, HttpMethod.GET, "/api/v2/beerUpc/{upc}", null),
+                Arguments.of(accept, HttpMethod.POST, "/api/v2/beer/batch", INVALID_BEERS),
+                Arguments.of(accept, HttpMethod.POST, "/api/v2/beer/sync", INVALID_BEERS),
+                Arguments.of(accept, HttpMethod.DELETE, "/api/v2/beer?ids=-1", null)));
+    }
+
+    @ParameterizedTest(name = "{1} {2} Accept: {0}")
+    @MethodSource("routes")
+    void answersJson(String accept, HttpMethod method, String uri, String body) {
+        WebTestClient.RequestBodySpec request = webTestClient.method(method)
+                .uri(uri, Map.of("id", beer.get("id").asInt(), "upc", beer.get("upc").asText()))
+                .accept(MediaType.parseMediaType(accept));
+        if (body != null) {
+            request.contentType(MediaType.APPLICATION_JSON).bodyValue(body);
+        }
+
+        request.exchange()
+                .expectStatus().is2xxSuccessful()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_JSON)
+                .expectBody(JsonNode.class).value(json -> assertThat(json).isNotNull());
+    }
+
+    static Stream<String> binaryRoutes() {
+        return Stream.of("/api/v1/beer", "/api/v1/beer/{id}", "/api/v2/beer", "/api/v2/beer/{id}");
+    }
+
+    @ParameterizedTest
+    @MethodSource("binaryRoutes")
+    void answersCborOnlyWhenAskedByName(String uri) {
+        webTestClient.get().uri(uri, Map.of("id", beer.get("id").asInt()))
+                .accept(MediaType.APPLICATION_CBOR)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_CBOR);
+    }
+
+    static Stream<String> exports() {
+        return Stream.of("/api/v1/beer/export", "/api/v2/beer/export");
+    }
+
+    @ParameterizedTest
+    @MethodSource("exports")
+    void exportsAnswerNdjson(String uri) {
+        webTestClient.get().uri(uri)
+                .accept(MediaType.ALL)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON);
+    }
+}
@@ -0,0 +1,127 @@
+package guru.springframework.sfgrestbrewery.web.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import guru.springframework.sfgrestbrewery.web.model.BeerDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Fires thousands of v1 POST and PUT calls in parallel and checks every response: each POST must answer 201 with
+ * a Location pointing at the beer it created, each PUT 204. Sized with {@code concurrency.requests} (per verb) and
+ * {@code concurrency.parallelism}, e.g. {@code mvn test -Dtest=BeerControllerConcurrencyIT -Dconcurrency.requests=5000}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "logging.level.root=warn",
+        "logging.level.guru.springframework.sfgrestbrewery=warn",
+        "logging.level.org.springframework.data.r2dbc=warn",
+        "logging.level.org.springframework.r2dbc=warn",
+        "logging.level.io.r2dbc=warn",
+        "logging.level.reactor.netty.http=warn",
+        "sfg.brewery.reset.enabled=false"})
+class BeerControllerConcurrencyIT {
+
+    final int requests = Integer.getInteger("concurrency.requests", 2000);
+    final int parallelism = Integer.getInteger("concurrency.parallelism", 256);
+
+    @LocalServerPort
+    int port;
+
+    WebClient webClient;
+    List<JsonNode> beers;
+
+    @BeforeEach
+    void setUp() {
+        webClient = WebClient.builder()
+                .baseUrl("http://localhost:" + port)
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(ConnectionProvider.builder("concurrency")
+                        .maxConnections(parallelism)
+                        .pendingAcquireMaxCount(-1)
+                        .build())))
+                .build();
+
+        beers = new ArrayList<>();
+        webClient.get().uri("/api/v1/beer?pageSize=1000")
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .block()
+                .get("content")
+                .forEach(beers::add);
+    }
+
+    @Test
+    void parallelPostsAndPuts() {
+        long upcBase = System.currentTimeMillis() % 1_000_000L * 1_000_000L;
+
+        List<String> failures = Flux.range(0, requests * 2)
+                .flatMap(i -> i % 2 == 0 ? post(String.format("8%012d", upcBase + i)) : put(beers.get(i % beers.size())),
+                        parallelism)
+                .filter(failure -> !failure.isEmpty())
+                .collectList()
+                .block(Duration.ofMinutes(5));
+
+        assertThat(failures).isEmpty();
+    }
+
+    /**
+     * Creates a beer and reads it back through the Location header. Emits a failure message, or an empty string.
+     */
+    private Mono<String> post(String upc) {
+        return webClient.post().uri("/api/v1/beer")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(BeerDto.builder()
+                        .beerName("Concurrent Beer")
+                        .beerStyle("LAGER")
+                        .upc(upc)
+                        .price(new BigDecimal("7.50"))
+                        .build())
+                .retrieve()
+                .toBodilessEntity()
+                .flatMap(response -> {
+                    URI location = response.getHeaders().getLocation();
+                    if (response.getStatusCode() != HttpStatus.CREATED || location == null) {
+                        return Mono.just("POST " + upc + ": " + response.getStatusCode() + " location " + location);
+                    }
+                    return webClient.get().uri(location)
+                            .retrieve()
+                            .bodyToMono(BeerDto.class)
+                            .map(saved -> upc.equals(saved.getUpc()) ? "" : "POST " + upc + ": " + location + " is " + saved.getUpc());
+                })
+                .onErrorResume(e -> Mono.just("POST " + upc + ": " + e));
+    }
+
+    private Mono<String> put(JsonNode beer) {
+        int beerId = beer.get("id").asInt();
+        return webClient.put().uri("/api/v1/beer/{beerId}", beerId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(BeerDto.builder()
+                        .beerName(beer.get("beerName").asText())
+                        .beerStyle(beer.get("beerStyle").asText())
+                        .upc(beer.get("upc").asText())
+                        .price(BigDecimal.valueOf(100 + beerId % 9000, 2))
+                        .build())
+                .retrieve()
+                .toBodilessEntity()
+                .map(ResponseEntity::getStatusCode)
+                .map(status -> status == HttpStatus.NO_CONTENT ? "" : "PUT " + beerId + ": " + status)
+                .onErrorResume(e -> Mono.just("PUT " + beerId + ": " + e));
+    }
+}
@@ -1,7 +1,10 @@
 package guru.springframework.sfgrestbrewery.web.controller;
 
 import guru.springframework.sfgrestbrewery.bootstrap.BeerLoader;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import guru.springframework.sfgrestbrewery.config.DatabaseConfig;
+import guru.springframework.sfgrestbrewery.services.BeerJsonCache;
 import guru.springframework.sfgrestbrewery.services.BeerService;
 import guru.springframework.sfgrestbrewery.web.model.BeerDto;
 import guru.springframework.sfgrestbrewery.web.model.BeerPagedList;
@@ -14,6 +17,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
@@ -26,10 +31,12 @@ import java.math.BigDecimal;
 import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 import static org.hamcrest.Matchers.equalTo;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.BDDMockito.given;
 
 @WebFluxTest({BeerController.class, DatabaseConfig.class})
@@ -39,14 +46,24 @@ class BeerControllerTestReactive {
     @Autowired
     WebTestClient webTestClient;
 
+    @Autowired
+    ObjectMapper objectMapper;
+
     @MockBean
     BeerService beerService;
 
+    @MockBean
+    BeerJsonCache beerJsonCache;
+
     BeerDto validBeerDto;
     @BeforeEach
     void setUp() {
 
         validBeerDto= BeerDto.builder().beerName("TEST_BEER").beerStyle("PALE_ALE").price(new BigDecimal("10.99")).upc(BeerLoader.BEER_1_UPC).build();
+
+        // a cache that always misses: load the beer and encode it
+        given(beerJsonCache.get(any(), anyBoolean(), any(), any())).willAnswer(invocation ->
+                invocation.<Supplier<Mono<BeerDto>>>getArgument(3).get().map(this::encode));
     }
 
     @Test
@@ -81,7 +98,7 @@ class BeerControllerTestReactive {
 
         BeerPagedList beerPagedList = new BeerPagedList(beerList, PageRequest.of(1,1), beerList.size());
 
-        given(beerService.listBeers(any(), any(), any(), any())).willReturn(Mono.just(beerPagedList));
+        given(beerService.listBeers(any(), any(), any(), any(), any())).willReturn(Mono.just(beerPagedList));
 
         webTestClient.get()
                 .uri("/api/v1/beer")
@@ -90,4 +107,12 @@ class BeerControllerTestReactive {
                 .expectStatus().isOk()
                 .expectBody(BeerPagedList.class);
     }
-}
\ No newline at end of file
+
+    DataBuffer encode(BeerDto beerDto) {
+        try {
+            return DefaultDataBufferFactory.sharedInstance.wrap(objectMapper.writeValueAsBytes(beerDto));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package guru.springframework.sfgrestbrewery.web.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Keyset pages on both APIs: following {@code nextCursor} visits every matching beer once, in sort order. Only
+ * the tests insert GOSE beers, so walks filter on that style to stay short.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureWebTestClient
+@ActiveProfiles("functional")
+class BeerCursorPagingTest {
+
+    static final String V1 = "/api/v1/beer?cursor=";
+    static final String V2 = "/api/v2/beer?cursor=";
+
+    @Autowired
+    WebTestClient webTestClient;
+
+    @Autowired
+    DatabaseClient databaseClient;
+
+    @ParameterizedTest
+    @ValueSource(strings = {V1, V2})
+    void walksEveryBeerOnceInNameOrder(String uri) {
+        String prefix = "Cursor " + UUID.randomUUID() + " ";
+        Integer firstUnnamed = insertBeer(null);
+        Integer b = insertBeer(prefix + "B");
+        Integer secondUnnamed = insertBeer(null);
+        Integer firstA = insertBeer(prefix + "A");
+        Integer secondA = insertBeer(prefix + "A");
+
+        // one beer per page puts a page boundary after every row, unnamed ones included
+        List<JsonNode> beers = walk(uri, "&beerStyle=GOSE&sortBy=beerName&pageSize=1");
+
+        List<Integer> ids = ids(beers);
+        assertThat(ids).doesNotHaveDuplicates();
+        assertThat(ids.stream().filter(List.of(firstUnnamed, b, secondUnnamed, firstA, secondA)::contains))
+                .containsExactly(firstUnnamed, secondUnnamed, firstA, secondA, b);
+        assertThat(beers.stream().map(beer -> beer.get("beerName").isNull() ? "" : beer.get("beerName").asText()))
+                .isSorted();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {V1, V2})
+    void walksEveryBeerOnceInIdOrder(String uri) {
+        Integer first = insertBeer(null);
+        Integer second = insertBeer("Cursor " + UUID.randomUUID());
+
+        List<Integer> ids = ids(walk(uri, "&beerStyle=GOSE&pageSize=2"));
+
+        assertThat(ids).isSorted().doesNotHaveDuplicates().contains(first, second);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {V1, V2})
+    void capsAHugePageSize(String uri) {
+        insertBeer("Cursor " + UUID.randomUUID());
+
+        JsonNode page = get(uri + "&beerStyle=GOSE&pageSize=" + Integer.MAX_VALUE);
+
+        assertThat(page.get("content").size()).isBetween(1, 1_000);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {V1 + "&pageSize=abc", V2 + "&pageSize=abc", V1 + "&beerStyle=MEAD", V2 + "&beerStyle=MEAD",
+            V1 + "&sortBy=price", V2 + "&sortBy=price", V1 + "bm90IGEgY3Vyc29y", V2 + "bm90IGEgY3Vyc29y"})
+    void rejectsMalformedParameters(String uri) {
+        webTestClient.get().uri(uri)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {V1 + "&showInventoryOnHand=true", V2 + "&showInventoryOnHand=true", V2 + "&showInventory=true"})
+    void showsInventoryWhenAskedFor(String uri) {
+        String name = "Cursor " + UUID.randomUUID();
+        insertBeer(name);
+
+        JsonNode content = get(uri + "&beerName=" + name).get("content");
+
+        assertThat(content).hasSize(1);
+        assertThat(content.get(0).get("quantityOnHand").asInt()).isEqualTo(10);
+    }
+
+    /**
+     * Every beer of every page, from the first page to the one without a {@code nextCursor}.
+     */
+    List<JsonNode> walk(String uri, String params) {
+        List<JsonNode> beers = new ArrayList<>();
+        String cursor = "";
+        for (int pages = 0; cursor != null; pages++) {
+            assertThat(pages).as("pages walked").isLessThan(10_000);
+            JsonNode page = get(uri + cursor + params);
+            page.get("content").forEach(beers::add);
+            cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+        }
+        return beers;
+    }
+
+    JsonNode get(String uri) {
+        return webTestClient.get().uri(uri)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(JsonNode.class)
+                .returnResult().getResponseBody();
+    }
+
+    static List<Integer> ids(List<JsonNode> beers) {
+        return beers.stream().map(beer -> beer.get("id").asInt()).collect(Collectors.toList());
+    }
+
+    Integer insertBeer(String name) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql("INSERT INTO beer (beer_name, beer_style, upc, " +
+                        "version, quantity_on_hand, price) VALUES (:name, 'GOSE', :upc, 0, 10, 9.99)")
+                .bind("upc", UUID.randomUUID().toString().substring(0, 20));
+        spec = name == null ? spec.bindNull("name", String.class) : spec.bind("name", name);
+        return spec.filter(statement -> statement.returnGeneratedValues("id"))
+                .map(row -> row.get("id", Integer.class))
+                .one()
+                .block();
+    }
+}
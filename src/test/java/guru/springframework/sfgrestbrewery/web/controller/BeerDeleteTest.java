@@ -0,0 +1,119 @@
+package guru.springframework.sfgrestbrewery.web.controller;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.Collections;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Single and bulk deletes on both APIs.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureWebTestClient
+@ActiveProfiles("functional")
+class BeerDeleteTest {
+
+    @Autowired
+    WebTestClient webTestClient;
+
+    @Autowired
+    DatabaseClient databaseClient;
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/api/v1", "/api/v2"})
+    void deletesABeerOnce(String api) {
+        Integer id = insertBeer();
+
+        delete(api + "/beer/" + id).expectStatus().isOk();
+        delete(api + "/beer/" + id).expectStatus().isNotFound();
+
+        assertThat(exists(id)).isFalse();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/api/v1", "/api/v2"})
+    void rejectsABeerIdThatIsNotANumber(String api) {
+        delete(api + "/beer/abc").expectStatus().isBadRequest();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/api/v1", "/api/v2"})
+    void countsDistinctRequestedAndDeletedBeers(String api) {
+        Integer first = insertBeer();
+        Integer second = insertBeer();
+
+        delete(api + "/beer?ids=" + first + "," + second + ",-1," + first)
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_JSON)
+                .expectBody()
+                .jsonPath("$.requested").isEqualTo(3)
+                .jsonPath("$.deleted").isEqualTo(2);
+
+        assertThat(exists(first)).isFalse();
+        assertThat(exists(second)).isFalse();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/api/v1", "/api/v2"})
+    void deletesNothingForUnknownIds(String api) {
+        delete(api + "/beer?ids=-1,-2")
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.requested").isEqualTo(2)
+                .jsonPath("$.deleted").isEqualTo(0);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/api/v1", "/api/v2"})
+    void rejectsIdsThatAreNotNumbers(String api) {
+        Integer id = insertBeer();
+
+        delete(api + "/beer?ids=" + id + ",abc").expectStatus().isBadRequest();
+
+        assertThat(exists(id)).isTrue();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/api/v1", "/api/v2"})
+    void rejectsMoreIdsThanTheLimit(String api) {
+        Integer id = insertBeer();
+
+        // sfg.brewery.beer-batch.max-ids defaults to 1000, duplicates count
+        delete(api + "/beer?ids=" + String.join(",", Collections.nCopies(1_001, id.toString())))
+                .expectStatus().isBadRequest();
+
+        assertThat(exists(id)).isTrue();
+    }
+
+    WebTestClient.ResponseSpec delete(String uri) {
+        return webTestClient.delete().uri(uri)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange();
+    }
+
+    Integer insertBeer() {
+        return databaseClient.sql("INSERT INTO beer (beer_name, beer_style, upc, version) VALUES ('Delete Me', 'IPA', :upc, 0)")
+                .bind("upc", UUID.randomUUID().toString().substring(0, 20))
+                .filter(statement -> statement.returnGeneratedValues("id"))
+                .map(row -> row.get("id", Integer.class))
+                .one()
+                .block();
+    }
+
+    boolean exists(Integer id) {
+        return databaseClient.sql("SELECT COUNT(*) FROM beer WHERE id = :id").bind("id", id)
+                .map(row -> row.get(0, Long.class))
+                .one()
+                .block() > 0;
+    }
+}
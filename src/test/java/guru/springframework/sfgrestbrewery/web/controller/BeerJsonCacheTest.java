@@ -0,0 +1,186 @@
+package guru.springframework.sfgrestbrewery.web.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import guru.springframework.sfgrestbrewery.services.BeerService;
+import guru.springframework.sfgrestbrewery.web.model.BeerDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.EncoderHttpMessageWriter;
+import org.springframework.http.codec.HttpMessageWriter;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Single beer reads answered from the encoded JSON cache: the bytes match what the JSON codec writes, and every
+ * write path evicts them.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureWebTestClient
+@ActiveProfiles("functional")
+class BeerJsonCacheTest {
+
+    @Autowired
+    WebTestClient webTestClient;
+
+    @Autowired
+    DatabaseClient databaseClient;
+
+    @Autowired
+    BeerService beerService;
+
+    @Autowired
+    ServerCodecConfigurer serverCodecConfigurer;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    Integer id;
+    String upc;
+
+    @BeforeEach
+    void setUp() {
+        upc = UUID.randomUUID().toString().substring(0, 20);
+        id = databaseClient.sql("INSERT INTO beer (beer_name, beer_style, upc, version, quantity_on_hand, price, " +
+                        "created_date, last_modified_date) VALUES ('Cache Me', 'IPA', :upc, 0, 10, 9.99, " +
+                        "TIMESTAMP '2021-03-07 12:00:00.5', NOW())")
+                .bind("upc", upc)
+                .filter(statement -> statement.returnGeneratedValues("id"))
+                .map(row -> row.get("id", Integer.class))
+                .one()
+                .block();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/api/v1/beer/{id}", "/api/v2/beer/{id}", "/api/v1/beer/{id}?showInventoryOnHand=true"})
+    void answersHitsWithTheBytesTheCodecWrites(String uri) {
+        boolean showInventory = uri.contains("showInventoryOnHand");
+        double hits = cacheHits();
+
+        byte[] miss = getJson(uri);
+        byte[] hit = getJson(uri);
+
+        assertThat(cacheHits()).isEqualTo(hits + 1);
+        assertThat(hit).isEqualTo(miss);
+        assertThat(new String(hit)).isEqualTo(new String(encodeWithCodec(beerService.getById(id, showInventory).block())));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"v1 PUT", "v2 PUT", "v1 PATCH", "v2 PATCH", "v1 sync", "v2 sync"})
+    void updatesEvictTheCachedJson(String write) {
+        readBoth();
+
+        update(write);
+
+        for (String uri : List.of("/api/v1/beer/{id}", "/api/v2/beer/{id}", "/api/v1/beerUpc/" + upc, "/api/v2/beerUpc/" + upc)) {
+            assertThat(webTestClient.get().uri(uri, id)
+                    .accept(MediaType.APPLICATION_JSON)
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody(JsonNode.class)
+                    .returnResult().getResponseBody()
+                    .get("beerName").asText())
+                    .as("%s after %s", uri, write)
+                    .isEqualTo("Updated by " + write);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/api/v1/beer/{id}", "/api/v2/beer/{id}", "/api/v1/beer?ids={id}", "/api/v2/beer?ids={id}"})
+    void deletesEvictTheCachedJson(String deleteUri) {
+        readBoth();
+
+        webTestClient.delete().uri(deleteUri, id)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk();
+
+        for (String uri : List.of("/api/v1/beer/{id}", "/api/v2/beer/{id}")) {
+            webTestClient.get().uri(uri, id)
+                    .accept(MediaType.APPLICATION_JSON)
+                    .exchange()
+                    .expectStatus().isNotFound();
+        }
+    }
+
+    void readBoth() {
+        getJson("/api/v1/beer/{id}");
+        getJson("/api/v2/beer/{id}");
+    }
+
+    void update(String write) {
+        String name = "Updated by " + write;
+        String api = write.startsWith("v1") ? "/api/v1" : "/api/v2";
+        Map<String, Object> beer = Map.of("beerName", name, "beerStyle", "IPA", "upc", upc, "price", 9.99);
+
+        if (write.endsWith("sync")) {
+            webTestClient.post().uri(api + "/beer/sync")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .accept(MediaType.APPLICATION_JSON)
+                    .bodyValue(List.of(beer))
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody().jsonPath("$.updated").isEqualTo(1);
+        } else if (write.endsWith("PATCH")) {
+            webTestClient.patch().uri(api + "/beer/{id}", id)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .accept(MediaType.APPLICATION_JSON)
+                    .bodyValue(Map.of("version", 0, "beerName", name))
+                    .exchange()
+                    .expectStatus().isNoContent();
+        } else {
+            webTestClient.put().uri(api + "/beer/{id}", id)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .accept(MediaType.APPLICATION_JSON)
+                    .bodyValue(beer)
+                    .exchange()
+                    .expectStatus().isNoContent();
+        }
+    }
+
+    byte[] getJson(String uri) {
+        return webTestClient.get().uri(uri, id)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody()
+                .returnResult().getResponseBody();
+    }
+
+    @SuppressWarnings("unchecked")
+    byte[] encodeWithCodec(BeerDto beerDto) {
+        ResolvableType type = ResolvableType.forClass(BeerDto.class);
+        HttpMessageWriter<BeerDto> writer = (HttpMessageWriter<BeerDto>) serverCodecConfigurer.getWriters().stream()
+                .filter(candidate -> candidate.canWrite(type, MediaType.APPLICATION_JSON))
+                .findFirst()
+                .orElseThrow();
+        DataBuffer buffer = ((EncoderHttpMessageWriter<BeerDto>) writer).getEncoder()
+                .encodeValue(beerDto, DefaultDataBufferFactory.sharedInstance, type, MediaType.APPLICATION_JSON, Map.of());
+        byte[] bytes = new byte[buffer.readableByteCount()];
+        buffer.read(bytes);
+        DataBufferUtils.release(buffer);
+        return bytes;
+    }
+
+    double cacheHits() {
+        return meterRegistry.get("cache.gets").tags("cache", "beerJsonCache", "result", "hit").functionCounter().count();
+    }
+}
@@ -0,0 +1,135 @@
+package guru.springframework.sfgrestbrewery.web.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.Collections;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Multi-get by ids and by UPCs on both APIs: one entry per requested key, in request order.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureWebTestClient
+@ActiveProfiles("functional")
+class BeerMultiGetTest {
+
+    @Autowired
+    WebTestClient webTestClient;
+
+    @Autowired
+    DatabaseClient databaseClient;
+
+    Integer firstId;
+    String firstUpc;
+    Integer secondId;
+    String secondUpc;
+
+    @BeforeEach
+    void setUp() {
+        firstUpc = newUpc();
+        firstId = insertBeer("Multi Get 1", firstUpc);
+        secondUpc = newUpc();
+        secondId = insertBeer("Multi Get 2", secondUpc);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/api/v1", "/api/v2"})
+    void answersFoundAndMissingIdsInRequestOrder(String api) {
+        JsonNode results = get(api + "/beer?ids=" + secondId + ",-1," + firstId);
+
+        assertThat(results).hasSize(3);
+        assertFound(results.get(0), "id", secondId.toString(), "Multi Get 2");
+        assertMissing(results.get(1), "id", "-1");
+        assertFound(results.get(2), "id", firstId.toString(), "Multi Get 1");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/api/v1", "/api/v2"})
+    void repeatsDuplicateIds(String api) {
+        JsonNode results = get(api + "/beer?ids=" + firstId + "," + firstId + ",-1,-1");
+
+        assertThat(results).hasSize(4);
+        assertFound(results.get(0), "id", firstId.toString(), "Multi Get 1");
+        assertFound(results.get(1), "id", firstId.toString(), "Multi Get 1");
+        assertMissing(results.get(2), "id", "-1");
+        assertMissing(results.get(3), "id", "-1");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/api/v1", "/api/v2"})
+    void answersFoundMissingAndDuplicateUpcsInRequestOrder(String api) {
+        JsonNode results = get(api + "/beerUpc?upcs=" + firstUpc + ",none," + secondUpc + "," + firstUpc);
+
+        assertThat(results).hasSize(4);
+        assertFound(results.get(0), "upc", firstUpc, "Multi Get 1");
+        assertMissing(results.get(1), "upc", "none");
+        assertFound(results.get(2), "upc", secondUpc, "Multi Get 2");
+        assertFound(results.get(3), "upc", firstUpc, "Multi Get 1");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/api/v1", "/api/v2"})
+    void rejectsIdsThatAreNotNumbers(String api) {
+        webTestClient.get().uri(api + "/beer?ids=" + firstId + ",abc")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/api/v1/beer?ids=", "/api/v2/beer?ids=", "/api/v1/beerUpc?upcs=", "/api/v2/beerUpc?upcs="})
+    void rejectsMoreKeysThanTheLimit(String uri) {
+        // sfg.brewery.beer-batch.max-ids defaults to 1000, duplicates count
+        webTestClient.get().uri(uri + String.join(",", Collections.nCopies(1_001, "1")))
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    JsonNode get(String uri) {
+        return webTestClient.get().uri(uri)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(JsonNode.class)
+                .returnResult().getResponseBody();
+    }
+
+    static void assertFound(JsonNode result, String key, String value, String beerName) {
+        assertThat(result.get(key).asText()).isEqualTo(value);
+        assertThat(result.get("found").asBoolean()).isTrue();
+        assertThat(result.get("beer").get("beerName").asText()).isEqualTo(beerName);
+    }
+
+    static void assertMissing(JsonNode result, String key, String value) {
+        assertThat(result.get(key).asText()).isEqualTo(value);
+        assertThat(result.get("found").asBoolean()).isFalse();
+        assertThat(result.has("beer")).isFalse();
+    }
+
+    static String newUpc() {
+        return UUID.randomUUID().toString().substring(0, 20);
+    }
+
+    Integer insertBeer(String name, String upc) {
+        return databaseClient.sql("INSERT INTO beer (beer_name, beer_style, upc, version) VALUES (:name, 'IPA', :upc, 0)")
+                .bind("name", name)
+                .bind("upc", upc)
+                .filter(statement -> statement.returnGeneratedValues("id"))
+                .map(row -> row.get("id", Integer.class))
+                .one()
+                .block();
+    }
+}
@@ -0,0 +1,118 @@
+package guru.springframework.sfgrestbrewery.web.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import guru.springframework.sfgrestbrewery.config.StatementCaptureConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@code fields=} on both APIs: the SELECT reads only the requested columns, and the payload carries only the
+ * requested fields.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureWebTestClient
+@ActiveProfiles("functional")
+@Import(StatementCaptureConfig.class)
+class BeerSparseFieldsTest {
+
+    static final String FIELDS = "fields=id,beerName,lastUpdatedDate";
+
+    @Autowired
+    WebTestClient webTestClient;
+
+    @Autowired
+    DatabaseClient databaseClient;
+
+    Integer id;
+    String name;
+
+    @BeforeEach
+    void setUp() {
+        name = "Sparse " + UUID.randomUUID();
+        id = databaseClient.sql("INSERT INTO beer (beer_name, beer_style, upc, version, quantity_on_hand, price, " +
+                        "created_date, last_modified_date) VALUES (:name, 'IPA', :upc, 0, 10, 9.99, NOW(), " +
+                        "TIMESTAMP '2021-03-07 12:00:00')")
+                .bind("name", name)
+                .bind("upc", name.substring(7, 27))
+                .filter(statement -> statement.returnGeneratedValues("id"))
+                .map(row -> row.get("id", Integer.class))
+                .one()
+                .block();
+        StatementCaptureConfig.clear();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/api/v1/beer/{id}?", "/api/v2/beer/{id}?"})
+    void narrowsASingleBeer(String uri) {
+        JsonNode beer = get(uri + FIELDS);
+
+        assertSparse(beer);
+        assertSelectsOnlyTheRequestedColumns();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/api/v1/beer?beerName={name}&", "/api/v1/beer?cursor=&beerName={name}&",
+            "/api/v2/beer?beerName={name}&"})
+    void narrowsEveryBeerOfAPage(String uri) {
+        JsonNode content = get(uri + FIELDS).get("content");
+
+        assertThat(content).hasSize(1);
+        assertSparse(content.get(0));
+        assertSelectsOnlyTheRequestedColumns();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/api/v1/beer/{id}?", "/api/v2/beer/{id}?", "/api/v1/beer?beerName={name}&",
+            "/api/v1/beer?cursor=&beerName={name}&", "/api/v2/beer?beerName={name}&"})
+    void rejectsAnUnknownField(String uri) {
+        webTestClient.get().uri(uri + "fields=id,bogus", id)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    JsonNode get(String uri) {
+        return webTestClient.get().uri(uri.replace("{name}", name), id)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(JsonNode.class)
+                .returnResult().getResponseBody();
+    }
+
+    void assertSparse(JsonNode beer) {
+        List<String> names = new ArrayList<>();
+        beer.fieldNames().forEachRemaining(names::add);
+        assertThat(names).containsExactlyInAnyOrder("id", "beerName", "lastUpdatedDate");
+        assertThat(beer.get("id").asInt()).isEqualTo(id);
+        assertThat(beer.get("beerName").asText()).isEqualTo(name);
+        assertThat(beer.get("lastUpdatedDate").asText()).startsWith("2021-03-07");
+    }
+
+    static void assertSelectsOnlyTheRequestedColumns() {
+        List<String> selects = StatementCaptureConfig.issued().stream()
+                .map(query -> query.getQuery())
+                .filter(sql -> sql.startsWith("SELECT") && sql.contains("beer") && !sql.contains("COUNT"))
+                .collect(Collectors.toList());
+
+        assertThat(selects).hasSize(1).allSatisfy(sql -> assertThat(sql)
+                .contains("id", "beer_name", "last_modified_date")
+                .doesNotContain("price", "upc", "quantity_on_hand", "beer_style", "created_date", "version"));
+    }
+}
@@ -0,0 +1,268 @@
+package guru.springframework.sfgrestbrewery.web.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * PUT and PATCH of a beer on both APIs: what is written, and when nothing is.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureWebTestClient
+@ActiveProfiles("functional")
+class BeerUpdateTest {
+
+    static final String V1 = "/api/v1/beer/{id}";
+    static final String V2 = "/api/v2/beer/{id}";
+
+    @Autowired
+    WebTestClient webTestClient;
+
+    @Autowired
+    DatabaseClient databaseClient;
+
+    Integer id;
+    String upc;
+
+    @BeforeEach
+    void setUp() {
+        upc = UUID.randomUUID().toString().substring(0, 20);
+        id = databaseClient.sql("INSERT INTO beer (beer_name, beer_style, upc, version, quantity_on_hand, price, " +
+                        "created_date, last_modified_date) VALUES ('Update Me', 'IPA', :upc, 3, 10, 9.99, " +
+                        "TIMESTAMP '2021-03-07 12:00:00', TIMESTAMP '2021-03-07 12:00:00')")
+                .bind("upc", upc)
+                .filter(statement -> statement.returnGeneratedValues("id"))
+                .map(row -> row.get("id", Integer.class))
+                .one()
+                .block();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {V1, V2})
+    void updatesTheBeerAndBumpsItsVersion(String uri) {
+        put(uri, id, beer("Updated", 3L))
+                .expectStatus().isNoContent();
+
+        Map<String, Object> stored = stored();
+        assertThat(stored.get("beer_name")).isEqualTo("Updated");
+        assertThat(stored.get("beer_style")).isEqualTo("LAGER");
+        assertThat((BigDecimal) stored.get("price")).isEqualByComparingTo("12.50");
+        assertThat(stored.get("version")).isEqualTo(4);
+        assertThat(stored.get("quantity_on_hand")).isEqualTo(10);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {V1, V2})
+    void answersNotFoundForAnUnknownBeer(String uri) {
+        put(uri, -1, beer("Updated", 3L))
+                .expectStatus().isNotFound();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {V1, V2})
+    void answersConflictForAStaleVersion(String uri) {
+        put(uri, id, beer("Updated", 2L))
+                .expectStatus().isEqualTo(409);
+
+        Map<String, Object> stored = stored();
+        assertThat(stored.get("beer_name")).isEqualTo("Update Me");
+        assertThat(stored.get("version")).isEqualTo(3);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {V1, V2})
+    void leavesAnUnchangedBeerUnwritten(String uri) {
+        put(uri, id, Map.of("version", 3, "beerName", "Update Me", "beerStyle", "IPA", "upc", upc, "price", 9.990))
+                .expectStatus().isNoContent();
+
+        Map<String, Object> stored = stored();
+        assertThat(stored.get("version")).isEqualTo(3);
+        assertThat(stored.get("last_modified_date").toString()).isEqualTo("2021-03-07T12:00");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {V1, V2})
+    void updatesWithoutAVersionCheckWhenNoneIsSent(String uri) {
+        put(uri, id, beer("Updated", null))
+                .expectStatus().isNoContent();
+
+        Map<String, Object> stored = stored();
+        assertThat(stored.get("beer_name")).isEqualTo("Updated");
+        assertThat(stored.get("version")).isEqualTo(4);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {V1, V2})
+    void rejectsAnEmptyBody(String uri) {
+        webTestClient.put().uri(uri, id)
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        assertThat(stored().get("version")).isEqualTo(3);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {V1, V2})
+    void rejectsAnInvalidBeer(String uri) {
+        put(uri, id, Map.of("version", 3, "beerName", "", "beerStyle", "IPA", "upc", upc))
+                .expectStatus().isBadRequest();
+
+        assertThat(stored().get("version")).isEqualTo(3);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/api/v1/beer/abc", "/api/v2/beer/abc"})
+    void rejectsABeerIdThatIsNotANumber(String uri) {
+        webTestClient.put().uri(uri)
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .bodyValue(beer("Updated", 3L))
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {V1, V2})
+    void rejectsAnUnknownStyle(String uri) {
+        put(uri, id, Map.of("version", 3, "beerName", "Updated", "beerStyle", "MEAD", "upc", upc))
+                .expectStatus().isBadRequest();
+
+        assertThat(stored().get("version")).isEqualTo(3);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {V1, V2})
+    void patchesOnlyThePresentFields(String uri) {
+        patch(uri, id, Map.of("version", 3, "price", 11.25, "quantityOnHand", 24))
+                .expectStatus().isNoContent();
+
+        Map<String, Object> stored = stored();
+        assertThat((BigDecimal) stored.get("price")).isEqualByComparingTo("11.25");
+        assertThat(stored.get("quantity_on_hand")).isEqualTo(24);
+        assertThat(stored.get("beer_name")).isEqualTo("Update Me");
+        assertThat(stored.get("beer_style")).isEqualTo("IPA");
+        assertThat(stored.get("upc")).isEqualTo(upc);
+        assertThat(stored.get("version")).isEqualTo(4);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {V1, V2})
+    void patchLeavesNullFieldsLikeAbsentOnes(String uri) {
+        patch(uri, id, "{\"version\": 3, \"beerName\": \"Patched\", \"price\": null, \"upc\": null}")
+                .expectStatus().isNoContent();
+
+        Map<String, Object> stored = stored();
+        assertThat(stored.get("beer_name")).isEqualTo("Patched");
+        assertThat((BigDecimal) stored.get("price")).isEqualByComparingTo("9.99");
+        assertThat(stored.get("upc")).isEqualTo(upc);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {V1, V2})
+    void rejectsAPatchWithNothingToWrite(String uri) {
+        patch(uri, id, "{\"version\": 3, \"beerName\": null}")
+                .expectStatus().isBadRequest();
+
+        assertThat(stored().get("version")).isEqualTo(3);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {V1, V2})
+    void rejectsAPatchWithoutAVersion(String uri) {
+        patch(uri, id, Map.of("beerName", "Patched"))
+                .expectStatus().isBadRequest();
+
+        assertThat(stored().get("beer_name")).isEqualTo("Update Me");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {V1, V2})
+    void rejectsAPatchOfAnUnknownStyle(String uri) {
+        patch(uri, id, Map.of("version", 3, "beerStyle", "MEAD"))
+                .expectStatus().isBadRequest();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {V1, V2})
+    void answersConflictForAStalePatch(String uri) {
+        patch(uri, id, Map.of("version", 2, "beerName", "Patched"))
+                .expectStatus().isEqualTo(409);
+
+        Map<String, Object> stored = stored();
+        assertThat(stored.get("beer_name")).isEqualTo("Update Me");
+        assertThat(stored.get("version")).isEqualTo(3);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {V1, V2})
+    void answersNotFoundForAPatchOfAnUnknownBeer(String uri) {
+        patch(uri, -1, Map.of("version", 3, "beerName", "Patched"))
+                .expectStatus().isNotFound();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {V1, V2})
+    void rejectsAnEmptyPatch(String uri) {
+        webTestClient.patch().uri(uri, id)
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/api/v1/beer/abc", "/api/v2/beer/abc"})
+    void rejectsAPatchOfABeerIdThatIsNotANumber(String uri) {
+        webTestClient.patch().uri(uri)
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("version", 3, "beerName", "Patched"))
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    WebTestClient.ResponseSpec put(String uri, Integer beerId, Object body) {
+        return webTestClient.put().uri(uri, beerId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .bodyValue(body)
+                .exchange();
+    }
+
+    WebTestClient.ResponseSpec patch(String uri, Integer beerId, Object body) {
+        return webTestClient.patch().uri(uri, beerId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .bodyValue(body)
+                .exchange();
+    }
+
+    Map<String, Object> beer(String name, Long version) {
+        Map<String, Object> beer = new HashMap<>(Map.of("beerName", name, "beerStyle", "LAGER", "upc", upc,
+                "price", new BigDecimal("12.50")));
+        if (version != null) {
+            beer.put("version", version);
+        }
+        return beer;
+    }
+
+    Map<String, Object> stored() {
+        return databaseClient.sql("SELECT * FROM beer WHERE id = :id").bind("id", id).fetch().one().block();
+    }
+}
@@ -176,7 +176,7 @@ public class WebClientIT {
 
     @Test
     void createBeerRequest() throws InterruptedException {
-        BeerDto validBeerDto= BeerDto.builder().beerName("TEST_BEER").beerStyle("PALE_ALE").price(new BigDecimal("10.99")).upc(BeerLoader.BEER_1_UPC).build();;
+        BeerDto validBeerDto= BeerDto.builder().beerName("TEST_BEER").beerStyle("PALE_ALE").price(new BigDecimal("10.99")).upc("0083783375214").build();;
         CountDownLatch countDownLatch = new CountDownLatch(1);
 
         Mono<ResponseEntity<Void>> responseEntityMono = webClient.post().uri("/api/v1/beer")
@@ -211,7 +211,9 @@ public class WebClientIT {
             countDownLatch.countDown();
         });
 
-        countDownLatch.await(1000,TimeUnit.MILLISECONDS);
+        // this may be the first request against a cold server and client, so allow more than the usual second
+        countDownLatch.await(5000,TimeUnit.MILLISECONDS);
+        assertThat(countDownLatch.getCount()).isEqualTo(0);
 
         CountDownLatch countDownLatch2 = new CountDownLatch(1);
         BeerDto beerDto = (BeerDto) atomicReference.get();
@@ -236,7 +238,7 @@ public class WebClientIT {
                                     countDownLatch2.countDown();
                                 });
 
-        countDownLatch2.await(1000,TimeUnit.MILLISECONDS);
+        countDownLatch2.await(5000,TimeUnit.MILLISECONDS);
         assertThat(countDownLatch2.getCount()).isEqualTo(0);
 
 